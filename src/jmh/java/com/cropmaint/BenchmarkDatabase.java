@@ -0,0 +1,71 @@
+package com.cropmaint;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The application without its web server, on an in-memory H2 database seeded with {@code rows}
+ * machines and {@code rows} logs, all of the logs on machine {@link #MACHINE_ID}.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    public static final long MACHINE_ID = 1;
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkDatabase(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static BenchmarkDatabase start(String name, int rows) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CropmaintApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        seed(context.getBean(JdbcTemplate.class), rows);
+        return new BenchmarkDatabase(context);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        List<Object[]> machines = new ArrayList<>(rows);
+        List<Object[]> logs = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            machines.add(new Object[]{(long) i, "Harvester " + i, "BM-" + i, "North Field", "OPERATIONAL", "HIGH", "AgriWorks"});
+            logs.add(new Object[]{Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(i % 365)),
+                    "Replaced the hydraulic filter and checked the pump pressure after the morning run.",
+                    "Technician " + (i % 20), 120.0 + i % 50, MACHINE_ID, i % 3 == 0 ? "PENDING" : "COMPLETED"});
+        }
+        jdbcTemplate.batchUpdate("insert into machines (id, name, machine_code, location, status, criticality_level, manufacturer) "
+                + "values (?, ?, ?, ?, ?, ?, ?)", machines);
+        jdbcTemplate.batchUpdate("insert into maintenance_logs (log_date, description, performed_by, cost, machine_id, status) "
+                + "values (?, ?, ?, ?, ?, ?)", logs);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        template.setReadOnly(true);
+        return template;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
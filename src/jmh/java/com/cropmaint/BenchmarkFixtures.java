@@ -0,0 +1,120 @@
+package com.cropmaint;
+
+import com.cropmaint.dto.MachineResponseDTO;
+import com.cropmaint.dto.MaintenanceLogResponseDTO;
+import com.cropmaint.entity.Machine;
+import com.cropmaint.entity.MaintenanceLog;
+import com.cropmaint.entity.MaintenanceSnapshot;
+import com.cropmaint.entity.User;
+import com.cropmaint.enums.CriticalityLevel;
+import com.cropmaint.enums.MachineStatus;
+import com.cropmaint.model.MaintenanceStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic, fully populated entities and DTOs shaped like production rows.
+ */
+public final class BenchmarkFixtures {
+
+    private static final String[] LOCATIONS = {"North Field", "South Field", "Orchard", "Grain Store", "Workshop"};
+    private static final LocalDate EPOCH = LocalDate.of(2020, 1, 1);
+
+    private BenchmarkFixtures() {
+    }
+
+    public static List<Machine> machines(int count) {
+        Random random = new Random(42);
+        List<Machine> machines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Machine machine = new Machine();
+            machine.setId((long) i + 1);
+            machine.setName("Combine Harvester " + i);
+            machine.setMachineCode("CH-" + (100000 + i));
+            machine.setLocation(LOCATIONS[i % LOCATIONS.length]);
+            machine.setInstallDate(EPOCH.plusDays(random.nextInt(1500)));
+            machine.setStatus(MachineStatus.values()[i % MachineStatus.values().length]);
+            machine.setMachineType("Harvester");
+            machine.setManufacturer("AgriWorks");
+            machine.setModelNumber("AW-" + (i % 12));
+            machine.setSerialNumber("SN" + Long.toHexString(random.nextLong()));
+            machine.setCriticalityLevel(CriticalityLevel.values()[i % CriticalityLevel.values().length]);
+            if (i % 4 != 0) {
+                MaintenanceSnapshot snapshot = new MaintenanceSnapshot();
+                snapshot.setLogId((long) i * 10);
+                snapshot.setDate(EPOCH.plusDays(1500 + random.nextInt(300)));
+                snapshot.setPerformedBy("Technician " + (i % 25));
+                snapshot.setCost(50 + random.nextInt(5000) / 10.0);
+                machine.setLastMaintenance(snapshot);
+            }
+            machines.add(machine);
+        }
+        return machines;
+    }
+
+    public static List<MaintenanceLog> logs(int count) {
+        Random random = new Random(7);
+        List<Machine> machines = machines(Math.max(1, count / 10));
+        User technician = new User();
+        technician.setId(99L);
+        List<MaintenanceLog> logs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MaintenanceLog log = new MaintenanceLog(EPOCH.plusDays(random.nextInt(2000)),
+                    "Replaced worn drive belt and inspected bearings on unit " + i, "Technician " + (i % 25),
+                    20 + random.nextInt(20000) / 10.0, machines.get(i % machines.size()),
+                    MaintenanceStatus.values()[i % MaintenanceStatus.values().length]);
+            log.setId((long) i + 1);
+            if (i % 3 != 0) {
+                log.setTechnician(technician);
+            }
+            logs.add(log);
+        }
+        return logs;
+    }
+
+    public static List<MachineResponseDTO> machineDtos(int count) {
+        List<MachineResponseDTO> dtos = new ArrayList<>(count);
+        for (Machine machine : machines(count)) {
+            MachineResponseDTO dto = new MachineResponseDTO();
+            dto.setId(machine.getId());
+            dto.setName(machine.getName());
+            dto.setMachineCode(machine.getMachineCode());
+            dto.setLocation(machine.getLocation());
+            dto.setInstallDate(machine.getInstallDate());
+            dto.setStatus(machine.getStatus());
+            dto.setMachineType(machine.getMachineType());
+            dto.setManufacturer(machine.getManufacturer());
+            dto.setModelNumber(machine.getModelNumber());
+            dto.setSerialNumber(machine.getSerialNumber());
+            dto.setCriticalityLevel(machine.getCriticalityLevel());
+            if (machine.getLastMaintenance() != null) {
+                dto.setLastMaintenanceLogId(machine.getLastMaintenance().getLogId());
+                dto.setLastMaintenanceDate(machine.getLastMaintenance().getDate());
+                dto.setLastMaintenancePerformedBy(machine.getLastMaintenance().getPerformedBy());
+                dto.setLastMaintenanceCost(machine.getLastMaintenance().getCost());
+            }
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    public static List<MaintenanceLogResponseDTO> logDtos(int count) {
+        List<MaintenanceLogResponseDTO> dtos = new ArrayList<>(count);
+        for (MaintenanceLog log : logs(count)) {
+            MaintenanceLogResponseDTO dto = new MaintenanceLogResponseDTO();
+            dto.setId(log.getId());
+            dto.setLogDate(log.getLogDate());
+            dto.setDescription(log.getDescription());
+            dto.setPerformedBy(log.getPerformedBy());
+            dto.setCost(log.getCost());
+            dto.setMachineId(log.getMachine().getId());
+            dto.setStatus(log.getStatus().name());
+            dto.setTechnicianId(log.getTechnician() != null ? log.getTechnician().getId() : null);
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,70 @@
+package com.cropmaint.service;
+
+import com.cropmaint.enums.CriticalityLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One AssignmentSolver.solve over a backlog shaped like a large farm group: jobs spread over a few
+ * dozen locations, technicians already working at one to three of them. The 10000-job case has to
+ * stay well under a second, since POST /api/assignments solves inside the request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AssignmentSolverBenchmark {
+
+    private static final int LOCATIONS = 40;
+    private static final int TECHNICIANS = 80;
+    private static final LocalDate EPOCH = LocalDate.of(2024, 1, 1);
+
+    @Param({"1000", "10000"})
+    private int jobCount;
+
+    private AssignmentSolver solver;
+    private List<AssignmentSolver.Job> jobs;
+    private List<AssignmentSolver.Technician> technicians;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        solver = new AssignmentSolver(3, ForkJoinPool.commonPool());
+        CriticalityLevel[] criticality = CriticalityLevel.values();
+
+        jobs = new ArrayList<>(jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            AssignmentSolver.JobKind kind = i % 3 == 0 ? AssignmentSolver.JobKind.SCHEDULE : AssignmentSolver.JobKind.LOG;
+            jobs.add(new AssignmentSolver.Job(kind, (long) i + 1, "Location " + random.nextInt(LOCATIONS),
+                    criticality[random.nextInt(criticality.length)], EPOCH.plusDays(random.nextInt(365))));
+        }
+
+        technicians = new ArrayList<>(TECHNICIANS);
+        for (int i = 0; i < TECHNICIANS; i++) {
+            Map<String, Integer> openJobs = new HashMap<>();
+            for (int j = random.nextInt(3); j >= 0; j--) {
+                openJobs.merge("Location " + random.nextInt(LOCATIONS), 1 + random.nextInt(10), Integer::sum);
+            }
+            technicians.add(new AssignmentSolver.Technician((long) i + 1, openJobs));
+        }
+    }
+
+    @Benchmark
+    public AssignmentSolver.Plan solve() {
+        return solver.solve(jobs, technicians);
+    }
+}
@@ -0,0 +1,41 @@
+package com.cropmaint.Service;
+
+import com.cropmaint.BenchmarkFixtures;
+import com.cropmaint.dto.MachineResponseDTO;
+import com.cropmaint.entity.Machine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of MachineService.mapEntityToResponseDto, paid once per machine on every list, page and stream.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MachineMapperBenchmark {
+
+    private static final int MACHINES = 1024;
+
+    private MachineService machineService;
+    private Machine[] machines;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // The mapper touches none of the collaborators
+        machineService = new MachineService(null, null, null, null, null, null);
+        machines = BenchmarkFixtures.machines(MACHINES).toArray(Machine[]::new);
+    }
+
+    @Benchmark
+    public MachineResponseDTO mapEntityToResponseDto() {
+        return machineService.mapEntityToResponseDto(machines[next++ & (MACHINES - 1)]);
+    }
+}
@@ -0,0 +1,63 @@
+package com.cropmaint.Service;
+
+import com.cropmaint.BenchmarkDatabase;
+import com.cropmaint.dto.MachineResponseDTO;
+import com.cropmaint.repository.MachineRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/machines without the web layer: managed entities copied into DTOs (the old path)
+ * against the MachineView projection, both in a read-only transaction on H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MachineReadPathBenchmark {
+
+    @Param({"100", "2000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private TransactionTemplate readOnly;
+    private MachineRepository machineRepository;
+    private MachineService machineService;
+
+    @Setup
+    public void setUp() {
+        database = BenchmarkDatabase.start("machine-read-path-" + rows, rows);
+        readOnly = database.readOnlyTransaction();
+        machineRepository = database.bean(MachineRepository.class);
+        machineService = database.bean(MachineService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<MachineResponseDTO> entities() {
+        return readOnly.execute(status -> machineRepository.findAll().stream()
+                .map(machineService::mapEntityToResponseDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<MachineResponseDTO> projection() {
+        return readOnly.execute(status -> machineRepository.findAllViews().stream()
+                .map(machineService::mapViewToResponseDto)
+                .toList());
+    }
+}
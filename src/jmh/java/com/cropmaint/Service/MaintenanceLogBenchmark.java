@@ -0,0 +1,71 @@
+package com.cropmaint.service;
+
+import com.cropmaint.BenchmarkFixtures;
+import com.cropmaint.dto.MaintenanceLogResponseDTO;
+import com.cropmaint.entity.MaintenanceLog;
+import com.cropmaint.exception.InvalidStatusTransitionException;
+import com.cropmaint.model.MaintenanceStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-log hot paths in MaintenanceLogService: entity to DTO mapping, status parsing from request
+ * strings and the status transition check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MaintenanceLogBenchmark {
+
+    private static final int LOGS = 1024;
+    // Statuses as clients actually send them
+    private static final String[] STATUS_INPUTS = {"PENDING", "in_progress", "Completed", "canceled", "IN_PROGRESS", "pending", "COMPLETED", "Canceled"};
+    private static final MaintenanceStatus[] STATUSES = MaintenanceStatus.values();
+
+    private MaintenanceLogService maintenanceLogService;
+    private MaintenanceLog[] logs;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // The mapper and parser touch none of the collaborators
+        maintenanceLogService = new MaintenanceLogService(null, null, null, null, null, null, null, null, null);
+        logs = BenchmarkFixtures.logs(LOGS).toArray(MaintenanceLog[]::new);
+    }
+
+    @Benchmark
+    public MaintenanceLogResponseDTO mapEntityToResponseDto() {
+        return maintenanceLogService.mapEntityToResponseDto(logs[next++ & (LOGS - 1)]);
+    }
+
+    @Benchmark
+    public MaintenanceStatus parseStatus() {
+        return maintenanceLogService.parseStatus(STATUS_INPUTS[next++ & (STATUS_INPUTS.length - 1)]);
+    }
+
+    /**
+     * A rejected status costs an IllegalArgumentException plus the translated exception.
+     */
+    @Benchmark
+    public Object parseInvalidStatus() {
+        try {
+            return maintenanceLogService.parseStatus("DONE");
+        } catch (InvalidStatusTransitionException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public boolean isValidTransition() {
+        // Cycles through all 16 (from, to) pairs
+        int pair = next++ & 15;
+        return MaintenanceStatusTransitions.isValid(STATUSES[pair & 3], STATUSES[pair >> 2]);
+    }
+}
@@ -0,0 +1,64 @@
+package com.cropmaint.service;
+
+import com.cropmaint.BenchmarkDatabase;
+import com.cropmaint.dto.MaintenanceLogResponseDTO;
+import com.cropmaint.repository.MaintenanceLogRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/maintenance-logs?machineId= without the web layer: managed entities copied into DTOs
+ * (the old path) against the LogView projection, both in a read-only transaction on H2.
+ * The gc profiler's alloc.rate.norm shows the allocation saved per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MaintenanceLogReadPathBenchmark {
+
+    @Param({"100", "2000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private TransactionTemplate readOnly;
+    private MaintenanceLogRepository maintenanceLogRepository;
+    private MaintenanceLogService maintenanceLogService;
+
+    @Setup
+    public void setUp() {
+        database = BenchmarkDatabase.start("log-read-path-" + rows, rows);
+        readOnly = database.readOnlyTransaction();
+        maintenanceLogRepository = database.bean(MaintenanceLogRepository.class);
+        maintenanceLogService = database.bean(MaintenanceLogService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<MaintenanceLogResponseDTO> entities() {
+        return readOnly.execute(status -> maintenanceLogRepository.findByMachineId(BenchmarkDatabase.MACHINE_ID).stream()
+                .map(maintenanceLogService::mapEntityToResponseDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<MaintenanceLogResponseDTO> projection() {
+        return readOnly.execute(status -> maintenanceLogRepository.findViewsByMachineId(BenchmarkDatabase.MACHINE_ID).stream()
+                .map(maintenanceLogService::mapViewToResponseDto)
+                .toList());
+    }
+}
@@ -0,0 +1,51 @@
+package com.cropmaint.dto;
+
+import com.cropmaint.BenchmarkFixtures;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list responses returned by GET /api/machines and GET /api/maintenance-logs.
+ * The ObjectMapper is built the way Spring MVC builds its own (JavaTimeModule, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<MachineResponseDTO> machines;
+    private List<MaintenanceLogResponseDTO> logs;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        machines = BenchmarkFixtures.machineDtos(size);
+        logs = BenchmarkFixtures.logDtos(size);
+    }
+
+    @Benchmark
+    public byte[] writeMachineList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(machines);
+    }
+
+    @Benchmark
+    public byte[] writeMaintenanceLogList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(logs);
+    }
+}
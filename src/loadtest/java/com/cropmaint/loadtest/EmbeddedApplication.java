@@ -0,0 +1,78 @@
+package com.cropmaint.loadtest;
+
+import com.cropmaint.CropmaintApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * The full application on a random port, backed by an in-memory H2 database in MySQL mode,
+ * plus an HTTP client to drive it.
+ */
+final class EmbeddedApplication implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final HttpClient client;
+    private final URI baseUri;
+
+    private EmbeddedApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.baseUri = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+    }
+
+    /**
+     * @param name Database name; each started application needs its own.
+     * @param virtualThreads Run with the virtual-threads profile.
+     * @param statementLatency Delay added to every statement, standing in for the network hop to MySQL.
+     * @param properties Further --name=value overrides.
+     */
+    static EmbeddedApplication start(String name, boolean virtualThreads, Duration statementLatency, List<String> properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--server.port=0",
+                "--loadtest.statement-latency=" + statementLatency));
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(CropmaintApplication.class, StatementLatencyConfiguration.class);
+        if (virtualThreads) {
+            builder.profiles("virtual-threads");
+            // The profile keeps the JVM alive for scheduled work; a load run wants to exit when done
+            args.add("--spring.main.keep-alive=false");
+        }
+        args.addAll(properties);
+        return new EmbeddedApplication(builder.run(args.toArray(String[]::new)));
+    }
+
+    ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    HttpClient client() {
+        return client;
+    }
+
+    URI uri(String pathAndQuery) {
+        return baseUri.resolve(pathAndQuery);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        context.close();
+    }
+}
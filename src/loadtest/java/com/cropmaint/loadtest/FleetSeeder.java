@@ -0,0 +1,148 @@
+package com.cropmaint.loadtest;
+
+import com.cropmaint.service.LastMaintenanceSnapshotService;
+import com.cropmaint.service.ScheduleEngine;
+import com.cropmaint.service.TechnicianWorkQueueService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Seeds a fleet shaped like production: machines spread over a handful of locations, a maintenance
+ * history per machine (mostly completed, some open and assigned), recurring schedules and technicians.
+ *
+ * Users and machines go through the REST API (including the CSV import); the history and schedules
+ * are bulk inserted over JDBC, after which the in-memory structures that are normally built at
+ * startup are rebuilt.
+ */
+final class FleetSeeder {
+
+    record Machine(Long id, String machineCode, String name, String location) {
+    }
+
+    record Fleet(List<Machine> machines, List<Long> technicianIds) {
+    }
+
+    static final String[] LOCATIONS = {"North Field", "South Field", "East Orchard", "West Paddock", "Grain Store", "Dairy Shed", "Workshop", "Vineyard"};
+    private static final String[] TASKS = {"Oil and filter change", "Replace drive belt", "Grease bearings", "Inspect hydraulics",
+            "Sharpen blades", "Check tyre pressure", "Replace air filter", "Calibrate sprayer nozzles"};
+
+    private static final String INSERT_LOG_SQL = "insert into maintenance_logs (log_date, description, performed_by, cost, machine_id, status, technician_id) "
+            + "values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SCHEDULE_SQL = "insert into schedule (maintenance_task_description, maintenance_due_date, created_on, "
+            + "frequency_days, frequency_type, last_performed_date, active, machine_id, assigned_technician_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private FleetSeeder() {
+    }
+
+    static Fleet seed(EmbeddedApplication app, int machines, int logsPerMachine, int schedulesPerMachine, int technicians) throws Exception {
+        Random random = new Random(2024);
+        List<Long> technicianIds = createTechnicians(app, technicians);
+        List<Machine> fleet = importMachines(app, machines);
+
+        JdbcTemplate jdbc = app.context().getBean(JdbcTemplate.class);
+        LocalDate today = LocalDate.now();
+        List<Object[]> logs = new ArrayList<>(machines * logsPerMachine);
+        for (Machine machine : fleet) {
+            for (int i = 0; i < logsPerMachine; i++) {
+                int roll = random.nextInt(100);
+                // History is mostly closed; the most recent entries are the open ones
+                String status = roll < 80 ? "COMPLETED" : roll < 85 ? "CANCELED" : roll < 92 ? "PENDING" : "IN_PROGRESS";
+                LocalDate date = status.equals("COMPLETED") || status.equals("CANCELED")
+                        ? today.minusDays(30 + random.nextInt(700))
+                        : today.minusDays(random.nextInt(30));
+                Long technicianId = status.equals("PENDING") && random.nextBoolean() ? null : pick(technicianIds, random);
+                logs.add(new Object[]{Date.valueOf(date), TASKS[random.nextInt(TASKS.length)] + " on " + machine.name(),
+                        "Technician " + technicianId, 25 + random.nextInt(50000) / 100.0, machine.id(), status, technicianId});
+            }
+        }
+        jdbc.batchUpdate(INSERT_LOG_SQL, logs);
+
+        List<Object[]> schedules = new ArrayList<>(machines * schedulesPerMachine);
+        Timestamp createdOn = Timestamp.valueOf(LocalDateTime.now().minusYears(1));
+        for (Machine machine : fleet) {
+            for (int i = 0; i < schedulesPerMachine; i++) {
+                boolean monthly = random.nextBoolean();
+                schedules.add(new Object[]{TASKS[random.nextInt(TASKS.length)], Date.valueOf(today.plusDays(random.nextInt(90) - 5)),
+                        createdOn, monthly ? 1 + random.nextInt(6) : 7 * (1 + random.nextInt(8)), monthly ? "MONTHS" : "DAYS",
+                        Date.valueOf(today.minusDays(random.nextInt(60))), true, machine.id(),
+                        random.nextInt(4) == 0 ? null : pick(technicianIds, random)});
+            }
+        }
+        jdbc.batchUpdate(INSERT_SCHEDULE_SQL, schedules);
+
+        app.context().getBean(LastMaintenanceSnapshotService.class).backfill();
+        app.context().getBean(TechnicianWorkQueueService.class).reconcile();
+        app.context().getBean(ScheduleEngine.class).reload();
+        return new Fleet(fleet, technicianIds);
+    }
+
+    /**
+     * Imports machines through the CSV endpoint and reads them back from the NDJSON stream.
+     */
+    static List<Machine> importMachines(EmbeddedApplication app, int count) throws Exception {
+        StringBuilder csv = new StringBuilder("name,machineCode,location,installDate,status,machineType,manufacturer,criticalityLevel\n");
+        String[] criticality = {"LOW", "MEDIUM", "MEDIUM", "HIGH", "CRITICAL"};
+        for (int i = 0; i < count; i++) {
+            csv.append("Machine ").append(i).append(",LT-").append(100000 + i).append(',').append(LOCATIONS[i % LOCATIONS.length])
+                    .append(',').append(LocalDate.of(2015, 1, 1).plusDays(i % 3000))
+                    .append(i % 20 == 0 ? ",IN_MAINTENANCE" : ",OPERATIONAL")
+                    .append(i % 3 == 0 ? ",Tractor" : ",Harvester").append(",AgriWorks,")
+                    .append(criticality[i % criticality.length]).append('\n');
+        }
+        HttpResponse<String> imported = app.client().send(HttpRequest.newBuilder(app.uri("/api/machines/import"))
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (imported.statusCode() != 200 || JSON.readTree(imported.body()).path("importedRows").asInt() != count) {
+            throw new IllegalStateException("Machine import failed: " + imported.statusCode() + " " + imported.body());
+        }
+
+        List<Machine> machines = new ArrayList<>(count);
+        HttpResponse<Stream<String>> stream = app.client().send(
+                HttpRequest.newBuilder(app.uri("/api/machines/stream")).build(), HttpResponse.BodyHandlers.ofLines());
+        try (Stream<String> lines = stream.body()) {
+            for (String line : (Iterable<String>) lines::iterator) {
+                JsonNode machine = JSON.readTree(line);
+                machines.add(new Machine(machine.get("id").asLong(), machine.get("machineCode").asText(),
+                        machine.get("name").asText(), machine.get("location").asText()));
+            }
+        }
+        return machines;
+    }
+
+    static List<Long> createTechnicians(EmbeddedApplication app, int count) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String body = "{\"username\":\"tech" + i + "\",\"password\":\"harvest-" + i + "\",\"email\":\"tech" + i
+                    + "@farm.example\",\"role\":\"TECHNICIAN\"}";
+            HttpResponse<String> created = app.client().send(HttpRequest.newBuilder(app.uri("/api/users"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (created.statusCode() != 201) {
+                throw new IllegalStateException("Creating technician failed: " + created.statusCode() + " " + created.body());
+            }
+            ids.add(JSON.readTree(created.body()).get("id").asLong());
+        }
+        return ids;
+    }
+
+    private static Long pick(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
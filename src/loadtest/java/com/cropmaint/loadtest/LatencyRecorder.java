@@ -0,0 +1,64 @@
+package com.cropmaint.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects request latencies for one client thread; recorders are merged once the run is over.
+ */
+final class LatencyRecorder {
+
+    private long[] nanos = new long[1024];
+    private int size;
+    private final Map<Integer, Long> errorsByStatus = new TreeMap<>();
+
+    void record(long latencyNanos) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = latencyNanos;
+    }
+
+    /**
+     * @param status The unexpected HTTP status, or -1 when the request failed with an I/O error.
+     */
+    void error(int status) {
+        errorsByStatus.merge(status, 1L, Long::sum);
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return errorsByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    Map<Integer, Long> errorsByStatus() {
+        return errorsByStatus;
+    }
+
+    static LatencyRecorder merge(Iterable<LatencyRecorder> recorders) {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (LatencyRecorder recorder : recorders) {
+            for (int i = 0; i < recorder.size; i++) {
+                merged.record(recorder.nanos[i]);
+            }
+            recorder.errorsByStatus.forEach((status, count) -> merged.errorsByStatus.merge(status, count, Long::sum));
+        }
+        Arrays.sort(merged.nanos, 0, merged.size);
+        return merged;
+    }
+
+    /**
+     * @return The latency in milliseconds at the given quantile; only valid on a merged recorder.
+     */
+    double percentileMillis(double quantile) {
+        if (size == 0) {
+            return 0;
+        }
+        int index = Math.min(size - 1, (int) Math.ceil(quantile * size) - 1);
+        return nanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
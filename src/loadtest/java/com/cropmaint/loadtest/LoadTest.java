@@ -0,0 +1,255 @@
+package com.cropmaint.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * End-to-end load test: boots the application on an embedded database, seeds a fleet with
+ * {@link FleetSeeder} and drives a mix of reads and writes from many concurrent clients.
+ *
+ * Each client is a closed loop on its own virtual thread acting as one technician: it browses
+ * machines and logs, checks and claims work from the queue, completes what it claimed, records new
+ * maintenance and edits machines it has read, sending the ETag it got back as If-Match. Latency (p50/p99/p999) and throughput are reported per endpoint.
+ *
+ * Run with: gradle loadTest -PloadTestArgs="--clients=200 --seconds=60"
+ * Options: --clients, --seconds, --warmup-seconds, --think-ms, --machines, --logs-per-machine,
+ * --schedules-per-machine, --technicians, --statement-latency-ms, --virtual-threads,
+ * --tomcat-threads, --pool-size.
+ */
+public final class LoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private record Operation(String name, int weight, Function<Session, HttpRequest> request,
+                             BiConsumer<Session, HttpResponse<String>> onSuccess) {
+
+        Operation(String name, int weight, Function<Session, HttpRequest> request) {
+            this(name, weight, request, (session, response) -> {
+            });
+        }
+    }
+
+    /**
+     * One client: the technician it acts as, the jobs it has claimed but not yet completed, and the
+     * ETags of machines it has read and may edit.
+     */
+    private static final class Session {
+
+        final EmbeddedApplication app;
+        final FleetSeeder.Fleet fleet;
+        final Long technicianId;
+        final SplittableRandom random;
+        final Deque<Long> claimed = new ArrayDeque<>();
+        final Map<FleetSeeder.Machine, String> machineTags = new LinkedHashMap<>();
+        FleetSeeder.Machine lastRead;
+        final Map<String, LatencyRecorder> latencies = new LinkedHashMap<>();
+
+        Session(EmbeddedApplication app, FleetSeeder.Fleet fleet, Long technicianId, long seed) {
+            this.app = app;
+            this.fleet = fleet;
+            this.technicianId = technicianId;
+            this.random = new SplittableRandom(seed);
+        }
+
+        FleetSeeder.Machine anyMachine() {
+            return fleet.machines().get(random.nextInt(fleet.machines().size()));
+        }
+
+        HttpRequest.Builder request(String pathAndQuery) {
+            return HttpRequest.newBuilder(app.uri(pathAndQuery)).timeout(Duration.ofSeconds(30));
+        }
+    }
+
+    private static final Operation CLAIM = new Operation("POST claim", 8,
+            session -> session.request("/api/work-queue/technicians/" + session.technicianId + "/claim")
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), LoadTest::rememberClaim);
+
+    private static final Operation GET_MACHINE = new Operation("GET machine", 20, session -> {
+        session.lastRead = session.anyMachine();
+        return session.request("/api/machines/" + session.lastRead.id()).build();
+    }, LoadTest::rememberMachineTag);
+
+    private static final List<Operation> OPERATIONS = List.of(
+            GET_MACHINE,
+            new Operation("GET machines page", 6, session -> session.request("/api/machines/page?limit=50&after="
+                    + (session.anyMachine().id() - 1)).build()),
+            new Operation("GET fleet summary", 4, session -> session.request("/api/machines/summary").build()),
+            new Operation("GET logs page", 12, session -> session.request("/api/maintenance-logs/page?limit=20&machineId="
+                    + session.anyMachine().id()).build()),
+            new Operation("GET logs range", 4, session -> {
+                LocalDate to = LocalDate.now().minusDays(session.random.nextInt(365));
+                return session.request("/api/maintenance-logs/range?from=" + to.minusDays(14) + "&to=" + to
+                        + "&technicianId=" + session.technicianId + "&status=COMPLETED").build();
+            }),
+            new Operation("GET occurrences", 4, session -> session.request("/api/schedules/occurrences?from=" + LocalDate.now()
+                    + "&to=" + LocalDate.now().plusDays(90) + "&machineId=" + session.anyMachine().id()).build()),
+            new Operation("GET next job", 10, session -> session.request("/api/work-queue/technicians/" + session.technicianId + "/next").build()),
+            new Operation("POST log", 10, session -> {
+                FleetSeeder.Machine machine = session.anyMachine();
+                String body = "{\"logDate\":\"" + LocalDate.now() + "\",\"description\":\"Noise reported on " + machine.name()
+                        + "\",\"performedBy\":\"Operator\",\"cost\":0,\"machineId\":" + machine.id() + ",\"status\":\"PENDING\"}";
+                return json(session.request("/api/maintenance-logs"), "POST", body);
+            }),
+            new Operation("PUT machine", 3, session -> {
+                // Taken out: a successful edit puts the new tag back, a conflict leaves the machine to be read again.
+                Map.Entry<FleetSeeder.Machine, String> read = session.machineTags.entrySet().iterator().next();
+                session.machineTags.remove(read.getKey());
+                session.lastRead = read.getKey();
+                FleetSeeder.Machine machine = read.getKey();
+                String body = "{\"name\":\"" + machine.name() + "\",\"machineCode\":\"" + machine.machineCode() + "\",\"location\":\""
+                        + machine.location() + "\",\"installDate\":\"2018-03-01\",\"status\":\"OPERATIONAL\",\"machineType\":\"Harvester\","
+                        + "\"manufacturer\":\"AgriWorks\",\"criticalityLevel\":\"" + (session.random.nextBoolean() ? "HIGH" : "MEDIUM") + "\"}";
+                return json(session.request("/api/machines/" + machine.id()).header("If-Match", read.getValue()), "PUT", body);
+            }, LoadTest::rememberMachineTag),
+            CLAIM,
+            new Operation("POST complete", 8, session -> session.request("/api/work-queue/logs/" + session.claimed.poll() + "/complete")
+                    .POST(HttpRequest.BodyPublishers.noBody()).build()));
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        int clients = options.intValue("clients", 100);
+        List<String> properties = List.of(
+                "--server.tomcat.threads.max=" + options.intValue("tomcat-threads", 200),
+                "--spring.datasource.hikari.maximum-pool-size=" + options.intValue("pool-size", 20));
+
+        try (EmbeddedApplication app = EmbeddedApplication.start("loadtest", options.booleanValue("virtual-threads", false),
+                Duration.ofMillis(options.intValue("statement-latency-ms", 1)), properties)) {
+            long seedStarted = System.nanoTime();
+            FleetSeeder.Fleet fleet = FleetSeeder.seed(app, options.intValue("machines", 2000), options.intValue("logs-per-machine", 10),
+                    options.intValue("schedules-per-machine", 1), options.intValue("technicians", 40));
+            System.out.printf("Seeded %d machines and %d technicians in %d ms%n", fleet.machines().size(),
+                    fleet.technicianIds().size(), (System.nanoTime() - seedStarted) / 1_000_000);
+
+            Duration thinkTime = Duration.ofMillis(options.intValue("think-ms", 0));
+            System.out.printf("Warming up with %d clients%n", clients);
+            run(app, fleet, clients, thinkTime, Duration.ofSeconds(options.intValue("warmup-seconds", 10)));
+            System.out.println("Measuring");
+            long started = System.nanoTime();
+            List<Session> sessions = run(app, fleet, clients, thinkTime, Duration.ofSeconds(options.intValue("seconds", 30)));
+            report(sessions, Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+
+    private static List<Session> run(EmbeddedApplication app, FleetSeeder.Fleet fleet, int clients, Duration thinkTime,
+                                     Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        int totalWeight = OPERATIONS.stream().mapToInt(Operation::weight).sum();
+        List<Session> sessions = new ArrayList<>(clients);
+        List<Future<?>> running = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Session session = new Session(app, fleet, fleet.technicianIds().get(i % fleet.technicianIds().size()), i);
+                sessions.add(session);
+                running.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        execute(session, pick(session, totalWeight));
+                        if (!thinkTime.isZero()) {
+                            Thread.sleep(thinkTime);
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> task : running) {
+            task.get();
+        }
+        return sessions;
+    }
+
+    private static Operation pick(Session session, int totalWeight) {
+        int roll = session.random.nextInt(totalWeight);
+        for (Operation operation : OPERATIONS) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                // Nothing claimed yet: claim instead of completing; nothing read yet: read instead of editing
+                if (operation.name().equals("POST complete") && session.claimed.isEmpty()) {
+                    return CLAIM;
+                }
+                return operation.name().equals("PUT machine") && session.machineTags.isEmpty() ? GET_MACHINE : operation;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static void execute(Session session, Operation operation) throws InterruptedException {
+        LatencyRecorder recorder = session.latencies.computeIfAbsent(operation.name(), name -> new LatencyRecorder());
+        HttpRequest request = operation.request().apply(session);
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = session.app.client().send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                recorder.record(System.nanoTime() - started);
+                operation.onSuccess().accept(session, response);
+            } else {
+                recorder.error(response.statusCode());
+            }
+        } catch (IOException e) {
+            recorder.error(-1);
+        }
+    }
+
+    private static void rememberMachineTag(Session session, HttpResponse<String> response) {
+        response.headers().firstValue("ETag").ifPresent(tag -> session.machineTags.put(session.lastRead, tag));
+    }
+
+    private static void rememberClaim(Session session, HttpResponse<String> response) {
+        if (response.statusCode() == 200) {
+            try {
+                session.claimed.add(JSON.readTree(response.body()).get("id").asLong());
+            } catch (IOException e) {
+                throw new IllegalStateException("Unreadable claim response: " + response.body(), e);
+            }
+        }
+    }
+
+    private static HttpRequest json(HttpRequest.Builder builder, String method, String body) {
+        return builder.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static void report(List<Session> sessions, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        Map<String, LatencyRecorder> byOperation = new LinkedHashMap<>();
+        List<LatencyRecorder> all = new ArrayList<>();
+        for (Operation operation : OPERATIONS) {
+            List<LatencyRecorder> recorders = sessions.stream()
+                    .map(session -> session.latencies.get(operation.name()))
+                    .filter(recorder -> recorder != null)
+                    .toList();
+            all.addAll(recorders);
+            byOperation.put(operation.name(), LatencyRecorder.merge(recorders));
+        }
+        byOperation.put("TOTAL", LatencyRecorder.merge(all));
+
+        System.out.printf("%n%-20s %9s %10s %9s %9s %9s %9s %7s%n", "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        byOperation.forEach((name, latencies) -> System.out.printf("%-20s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                name, latencies.count(), latencies.count() / seconds, latencies.percentileMillis(0.50),
+                latencies.percentileMillis(0.99), latencies.percentileMillis(0.999), latencies.percentileMillis(1.0),
+                latencies.errors()));
+        byOperation.forEach((name, latencies) -> {
+            if (!name.equals("TOTAL") && latencies.errors() > 0) {
+                System.out.printf("%s errors by status (-1 = I/O error): %s%n", name, latencies.errorsByStatus());
+            }
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.cropmaint.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * --name=value command line options.
+ */
+final class Options {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    Options(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else if (!arg.isBlank()) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+        }
+    }
+
+    int intValue(String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    boolean booleanValue(String name, boolean defaultValue) {
+        String value = values.get(name);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+}
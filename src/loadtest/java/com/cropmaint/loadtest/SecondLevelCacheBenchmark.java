@@ -0,0 +1,157 @@
+package com.cropmaint.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Counts the database round trips the Hibernate second-level cache saves on Machine and User reads.
+ *
+ * The application is booted twice on an in-memory H2 database with a fixed delay added to every
+ * statement, once with the second-level and query caches off and once with them on. Each run drives
+ * the same mix: machine and technician lookups by id, plus a share of completed log creations, which
+ * write the machine's last-maintenance snapshot and so replace that machine's cache entry.
+ *
+ * Run with: gradle secondLevelCacheBenchmark -PbenchmarkArgs="--clients=64 --seconds=20"
+ * Options: --clients, --seconds, --warmup-seconds, --machines, --technicians, --write-percent,
+ * --statement-latency-ms.
+ */
+public final class SecondLevelCacheBenchmark {
+
+    private record Result(String mode, LatencyRecorder latencies, long statements, Statistics statistics) {
+
+        double statementsPerRequest() {
+            int requests = latencies.count() + (int) latencies.errors();
+            return requests == 0 ? 0 : (double) statements / requests;
+        }
+
+        double hitRatio() {
+            long hits = statistics.getSecondLevelCacheHitCount() + statistics.getQueryCacheHitCount();
+            long lookups = hits + statistics.getSecondLevelCacheMissCount() + statistics.getQueryCacheMissCount();
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private SecondLevelCacheBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        List<Result> results = new ArrayList<>();
+        for (boolean cached : new boolean[]{false, true}) {
+            results.add(run(cached, options));
+        }
+
+        System.out.printf("%n%-10s %10s %12s %14s %10s %10s %10s %8s%n", "mode", "requests", "statements",
+                "stmts/request", "hit ratio", "p50 ms", "p99 ms", "errors");
+        for (Result result : results) {
+            LatencyRecorder latencies = result.latencies();
+            System.out.printf("%-10s %10d %12d %14.2f %10.2f %10.2f %10.2f %8d%n", result.mode(), latencies.count(),
+                    result.statements(), result.statementsPerRequest(), result.hitRatio(),
+                    latencies.percentileMillis(0.50), latencies.percentileMillis(0.99), latencies.errors());
+        }
+    }
+
+    private static Result run(boolean cached, Options options) throws Exception {
+        String mode = cached ? "cached" : "uncached";
+        List<String> properties = List.of(
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cached,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + cached,
+                // The machine registry would otherwise absorb the machine reads made by log creation
+                "--cropmaint.machine-registry.max-size=0",
+                "--cropmaint.last-maintenance.backfill-on-startup=false");
+
+        try (EmbeddedApplication app = EmbeddedApplication.start("cache-" + mode, false,
+                Duration.ofMillis(options.intValue("statement-latency-ms", 1)), properties)) {
+            List<Long> machineIds = FleetSeeder.importMachines(app, options.intValue("machines", 500)).stream()
+                    .map(FleetSeeder.Machine::id)
+                    .toList();
+            List<Long> technicianIds = FleetSeeder.createTechnicians(app, options.intValue("technicians", 50));
+            int clients = options.intValue("clients", 32);
+            int writePercent = options.intValue("write-percent", 5);
+
+            System.out.printf("%s: warming up with %d clients%n", mode, clients);
+            drive(app, machineIds, technicianIds, clients, writePercent, Duration.ofSeconds(options.intValue("warmup-seconds", 5)));
+
+            Statistics statistics = app.context().getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+            long statementsBefore = statementCount(app);
+            System.out.printf("%s: measuring%n", mode);
+            LatencyRecorder latencies = drive(app, machineIds, technicianIds, clients, writePercent,
+                    Duration.ofSeconds(options.intValue("seconds", 15)));
+            return new Result(mode, latencies, statementCount(app) - statementsBefore, statistics);
+        }
+    }
+
+    private static long statementCount(EmbeddedApplication app) {
+        return app.context().getBean(MeterRegistry.class).find("cropmaint.jdbc.statements").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private static LatencyRecorder drive(EmbeddedApplication app, List<Long> machineIds, List<Long> technicianIds,
+                                         int clients, int writePercent, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<LatencyRecorder> recorders = new ArrayList<>(clients);
+        List<Future<?>> running = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                LatencyRecorder recorder = new LatencyRecorder();
+                recorders.add(recorder);
+                running.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = nextRequest(app, machineIds, technicianIds, writePercent);
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = app.client().send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() / 100 == 2) {
+                                recorder.record(System.nanoTime() - started);
+                            } else {
+                                recorder.error(response.statusCode());
+                            }
+                        } catch (IOException e) {
+                            recorder.error(-1);
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> task : running) {
+            task.get();
+        }
+        return LatencyRecorder.merge(recorders);
+    }
+
+    private static HttpRequest nextRequest(EmbeddedApplication app, List<Long> machineIds, List<Long> technicianIds, int writePercent) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long machineId = machineIds.get(random.nextInt(machineIds.size()));
+        int roll = random.nextInt(100);
+        if (roll < writePercent) {
+            String body = "{\"logDate\":\"" + LocalDate.now().minusDays(random.nextInt(365)) + "\",\"description\":\"Grease bearings\","
+                    + "\"performedBy\":\"bench\",\"cost\":120.0,\"machineId\":" + machineId + ",\"status\":\"COMPLETED\"}";
+            return HttpRequest.newBuilder(app.uri("/api/maintenance-logs"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+        if (roll < writePercent + (100 - writePercent) / 2) {
+            return HttpRequest.newBuilder(app.uri("/api/machines/" + machineId)).build();
+        }
+        return HttpRequest.newBuilder(app.uri("/api/users/" + technicianIds.get(random.nextInt(technicianIds.size())))).build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.cropmaint.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Benchmark-only: adds a fixed delay to every statement an in-memory database runs, standing in for
+ * the network round trip to MySQL. Without it H2 answers in microseconds and no request ever blocks
+ * long enough for the threading model to matter.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StatementLatencyConfiguration {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    @Bean
+    static BeanPostProcessor statementLatencyPostProcessor(Environment environment) {
+        Duration latency = environment.getProperty("loadtest.statement-latency", Duration.class, Duration.ZERO);
+        return new LatencyPostProcessor(latency);
+    }
+
+    private record LatencyPostProcessor(Duration latency) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || latency.isZero()) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return delayed(super.getConnection());
+                }
+            };
+        }
+
+        // Wrap the pool itself, underneath any admission control
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        private Connection delayed(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (STATEMENT_FACTORIES.contains(method.getName())) {
+                            Thread.sleep(latency);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.cropmaint.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares request throughput with Tomcat on platform threads and on virtual threads.
+ *
+ * Each mode boots the application on an in-memory H2 database with a fixed delay added to every
+ * statement, imports a fleet of machines and then drives GET /api/machines/{id} from many concurrent
+ * clients. The Tomcat pool is deliberately smaller than the connection pool, which is the situation
+ * seen at harvest-time peaks: platform threads run out while connections sit idle.
+ *
+ * Run with: gradle threadModeBenchmark -PbenchmarkArgs="--clients=512 --seconds=20"
+ * Options: --clients, --seconds, --warmup-seconds, --machines, --statement-latency-ms,
+ * --tomcat-threads, --pool-size.
+ */
+public final class ThreadModeBenchmark {
+
+    private record Result(String mode, LatencyRecorder latencies, Duration elapsed) {
+
+        double throughput() {
+            return latencies.count() / (elapsed.toNanos() / 1e9);
+        }
+    }
+
+    private ThreadModeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            results.add(run(virtual, options));
+        }
+
+        System.out.printf("%n%-10s %12s %10s %10s %10s %8s%n", "mode", "requests/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (Result result : results) {
+            LatencyRecorder latencies = result.latencies();
+            System.out.printf("%-10s %12.0f %10.2f %10.2f %10.2f %8d%n", result.mode(), result.throughput(),
+                    latencies.percentileMillis(0.50), latencies.percentileMillis(0.99),
+                    latencies.percentileMillis(1.0), latencies.errors());
+        }
+    }
+
+    private static Result run(boolean virtual, Options options) throws Exception {
+        int clients = options.intValue("clients", 256);
+        String mode = virtual ? "virtual" : "platform";
+        List<String> properties = List.of(
+                "--server.tomcat.threads.max=" + options.intValue("tomcat-threads", 64),
+                "--spring.datasource.hikari.maximum-pool-size=" + options.intValue("pool-size", 128),
+                "--cropmaint.last-maintenance.backfill-on-startup=false");
+
+        try (EmbeddedApplication app = EmbeddedApplication.start("benchmark-" + mode, virtual,
+                Duration.ofMillis(options.intValue("statement-latency-ms", 5)), properties)) {
+            List<Long> ids = FleetSeeder.importMachines(app, options.intValue("machines", 2000)).stream()
+                    .map(FleetSeeder.Machine::id)
+                    .toList();
+
+            System.out.printf("%s: warming up with %d clients%n", mode, clients);
+            drive(app, ids, clients, Duration.ofSeconds(options.intValue("warmup-seconds", 5)));
+            System.out.printf("%s: measuring%n", mode);
+            long started = System.nanoTime();
+            LatencyRecorder latencies = drive(app, ids, clients, Duration.ofSeconds(options.intValue("seconds", 15)));
+            return new Result(mode, latencies, Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+
+    /**
+     * Runs {@code clients} closed-loop clients for the given duration, each sending its next request
+     * as soon as the previous one completes.
+     */
+    private static LatencyRecorder drive(EmbeddedApplication app, List<Long> ids, int clients, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<LatencyRecorder> recorders = new ArrayList<>(clients);
+        List<Future<?>> running = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                LatencyRecorder recorder = new LatencyRecorder();
+                recorders.add(recorder);
+                running.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                        HttpRequest request = HttpRequest.newBuilder(app.uri("/api/machines/" + id)).build();
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = app.client().send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                recorder.record(System.nanoTime() - started);
+                            } else {
+                                recorder.error(response.statusCode());
+                            }
+                        } catch (IOException e) {
+                            recorder.error(-1);
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> task : running) {
+            task.get();
+        }
+        return LatencyRecorder.merge(recorders);
+    }
+}
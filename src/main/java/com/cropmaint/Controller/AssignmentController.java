@@ -0,0 +1,34 @@
+package com.cropmaint.controller;
+
+import com.cropmaint.dto.TechnicianAssignmentResultDTO;
+import com.cropmaint.service.TechnicianAssignmentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/assignments")
+public class AssignmentController {
+
+    private final TechnicianAssignmentService assignmentService;
+
+    @Autowired
+    public AssignmentController(TechnicianAssignmentService assignmentService) {
+        this.assignmentService = assignmentService;
+    }
+
+    @PostMapping
+    public ResponseEntity<TechnicianAssignmentResultDTO> assignDueWork(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        TechnicianAssignmentResultDTO result = assignmentService.assign(asOf != null ? asOf : LocalDate.now(), dryRun);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+}
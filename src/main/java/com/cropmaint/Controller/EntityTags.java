@@ -0,0 +1,106 @@
+package com.cropmaint.controller;
+
+import com.cropmaint.dto.CursorPageResponseDTO;
+import com.cropmaint.exception.BadRequestException;
+import com.cropmaint.exception.PreconditionRequiredException;
+import com.cropmaint.repository.MachineRepository;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Strong ETags computed from entity versions.
+ * A conditional GET is answered by comparing If-None-Match with a version read on its own (from the
+ * second-level cache or an aggregate query), so a 304 never loads, maps or serializes the rows.
+ * A list read without If-None-Match gets its tag from the rows it returns, at no extra query.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static String of(Long version) {
+        return quote(String.valueOf(version));
+    }
+
+    static String of(MachineRepository.CollectionVersion version) {
+        return quote(version.rows() + "-" + version.maxId() + "-" + version.idSum() + "-" + version.versionSum());
+    }
+
+    /**
+     * @return The same tag {@link #of(MachineRepository.CollectionVersion)} gives for these rows.
+     */
+    static <T> String of(List<T> rows, Function<T, Long> id, Function<T, Long> version) {
+        return of(fingerprintOf(rows, id, version));
+    }
+
+    /**
+     * A page is tagged from its own rows; whether more follow is part of the tag, since a row added
+     * past the end changes the page's cursor fields without changing its items.
+     */
+    static <T> String of(CursorPageResponseDTO<T> page, Function<T, Long> id, Function<T, Long> version) {
+        MachineRepository.CollectionVersion items = fingerprintOf(page.getItems(), id, version);
+        return quote(items.rows() + "-" + items.maxId() + "-" + items.idSum() + "-" + items.versionSum()
+                + (page.isHasMore() ? "-more" : ""));
+    }
+
+    private static <T> MachineRepository.CollectionVersion fingerprintOf(List<T> rows, Function<T, Long> id, Function<T, Long> version) {
+        long maxId = 0;
+        long idSum = 0;
+        long versionSum = 0;
+        for (T row : rows) {
+            long rowId = id.apply(row);
+            maxId = Math.max(maxId, rowId);
+            idSum += rowId;
+            versionSum += version.apply(row);
+        }
+        return new MachineRepository.CollectionVersion((long) rows.size(), maxId, idSum, versionSum);
+    }
+
+    /**
+     * @param ifNoneMatch The If-None-Match header, or null.
+     */
+    static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(tag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(candidate -> candidate.isWildcard() || candidate.compare(current, false));
+    }
+
+    /**
+     * @param ifMatch The If-Match header, or null.
+     * @param required Whether updates must be conditional (cropmaint.updates.require-if-match).
+     * @return The version the edit was based on, or null for an unconditional update.
+     * @throws PreconditionRequiredException if the header is required but absent or "*", which names no version.
+     * @throws BadRequestException if the header is not a single tag produced by {@link #of(Long)}.
+     */
+    static Long versionOf(String ifMatch, boolean required) {
+        List<ETag> tags = ifMatch != null ? ETag.parse(ifMatch) : List.of();
+        if (ifMatch == null || (tags.size() == 1 && tags.get(0).isWildcard())) {
+            if (required) {
+                throw new PreconditionRequiredException("If-Match with the ETag of the version being edited is required.");
+            }
+            return null;
+        }
+        if (tags.size() != 1 || tags.get(0).weak()) {
+            throw new BadRequestException("If-Match must be a single strong ETag from a previous response.");
+        }
+        try {
+            return Long.valueOf(tags.get(0).tag());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("If-Match " + ifMatch + " is not an ETag of this resource.");
+        }
+    }
+
+    static <T> ResponseEntity<T> notModified(String tag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
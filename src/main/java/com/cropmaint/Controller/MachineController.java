@@ -1,17 +1,31 @@
 package com.cropmaint.controller;
 
+import com.cropmaint.cache.MachineRegistryCache;
+import com.cropmaint.dto.CursorPageResponseDTO;
+import com.cropmaint.dto.FleetSummaryResponseDTO;
+import com.cropmaint.dto.MachineImportResultDTO;
 import com.cropmaint.dto.MachineRequestDTO;
 import com.cropmaint.dto.MachineResponseDTO;
 import com.cropmaint.exception.DuplicateResourceException;
 import com.cropmaint.exception.ResourceNotFoundException;
 import com.cropmaint.Service.MachineService;
+import com.cropmaint.service.FleetSummaryService;
+import com.cropmaint.service.MachineImportService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -20,10 +34,20 @@ import java.util.List;
 public class MachineController {
 
     private final MachineService machineService;
+    private final MachineImportService machineImportService;
+    private final FleetSummaryService fleetSummaryService;
+    private final NdjsonWriter ndjsonWriter;
+    private final boolean requireIfMatch;
 
     @Autowired
-    public MachineController(MachineService machineService) {
+    public MachineController(MachineService machineService, MachineImportService machineImportService,
+                             FleetSummaryService fleetSummaryService, NdjsonWriter ndjsonWriter,
+                             @Value("${cropmaint.updates.require-if-match:false}") boolean requireIfMatch) {
         this.machineService = machineService;
+        this.machineImportService = machineImportService;
+        this.fleetSummaryService = fleetSummaryService;
+        this.ndjsonWriter = ndjsonWriter;
+        this.requireIfMatch = requireIfMatch;
     }
 
     @PostMapping
@@ -32,23 +56,94 @@ public class MachineController {
         return new ResponseEntity<>(createdMachine, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<MachineImportResultDTO> importMachinesCsv(InputStream body) throws IOException {
+        MachineImportResultDTO result = machineImportService.importCsv(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<MachineImportResultDTO> importMachinesNdjson(InputStream body) throws IOException {
+        MachineImportResultDTO result = machineImportService.importNdjson(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    /**
+     * @param fields Optional comma-separated subset of the response fields (e.g. id,machineCode,status);
+     *               only those columns are queried and returned, without an ETag unless If-None-Match was sent.
+     * @param ifNoneMatch Answered with 304 from one aggregate query when the fleet has not changed.
+     */
     @GetMapping
-    public ResponseEntity<List<MachineResponseDTO>> getAllMachines() {
+    public ResponseEntity<List<?>> getAllMachines(@RequestParam(required = false) String fields,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String tag = EntityTags.of(machineService.getMachinesVersion());
+            if (EntityTags.matches(ifNoneMatch, tag)) {
+                return EntityTags.notModified(tag);
+            }
+            if (fields != null) {
+                return ResponseEntity.ok().eTag(tag).body(machineService.getAllMachines(fields));
+            }
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(machineService.getAllMachines(fields));
+        }
         List<MachineResponseDTO> machines = machineService.getAllMachines();
-        return new ResponseEntity<>(machines, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(machines, MachineResponseDTO::getId, MachineResponseDTO::getVersion))
+                .body(machines);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponseDTO<MachineResponseDTO>> getMachinesPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + MachineService.DEFAULT_PAGE_SIZE) int limit) {
+        CursorPageResponseDTO<MachineResponseDTO> page = machineService.getMachinesPage(after, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMachines() {
+        StreamingResponseBody body = outputStream ->
+                machineService.streamMachines(ndjsonWriter.lineSink(outputStream));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<FleetSummaryResponseDTO> getFleetSummary() {
+        return new ResponseEntity<>(fleetSummaryService.getSummary(), HttpStatus.OK);
+    }
+
+    @GetMapping("/registry/stats")
+    public ResponseEntity<MachineRegistryCache.Stats> getRegistryStats() {
+        return new ResponseEntity<>(machineService.getRegistryStats(), HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<MachineResponseDTO> getMachineById(@PathVariable Long id) {
+    public ResponseEntity<MachineResponseDTO> getMachineById(@PathVariable Long id,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String tag = EntityTags.of(machineService.getMachineVersion(id));
+            if (EntityTags.matches(ifNoneMatch, tag)) {
+                return EntityTags.notModified(tag);
+            }
+        }
         MachineResponseDTO machine = machineService.getMachineById(id);
-        return new ResponseEntity<>(machine, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(EntityTags.of(machine.getVersion())).body(machine);
     }
 
+    /**
+     * @param ifMatch ETag the edit was based on; if the machine has been edited since, the update is refused with 409.
+     *                Without it the update is unconditional, unless cropmaint.updates.require-if-match is set (428).
+     */
     @PutMapping("/{id}")
     public ResponseEntity<MachineResponseDTO> updateMachine(@PathVariable Long id,
-                                                            @Valid @RequestBody MachineRequestDTO requestDTO) {
-        MachineResponseDTO updatedMachine = machineService.updateMachine(id, requestDTO);
-        return new ResponseEntity<>(updatedMachine, HttpStatus.OK);
+                                                            @Valid @RequestBody MachineRequestDTO requestDTO,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        MachineResponseDTO updatedMachine = machineService.updateMachine(id, requestDTO, EntityTags.versionOf(ifMatch, requireIfMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(updatedMachine.getVersion())).body(updatedMachine);
     }
 
     @DeleteMapping("/{id}")
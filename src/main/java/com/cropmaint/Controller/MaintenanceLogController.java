@@ -1,18 +1,27 @@
 package com.cropmaint.controller;
 
+import com.cropmaint.dto.CursorPageResponseDTO;
+import com.cropmaint.dto.MaintenanceLogFilterDTO;
 import com.cropmaint.dto.MaintenanceLogRequestDTO;
 import com.cropmaint.dto.MaintenanceLogResponseDTO;
+import com.cropmaint.dto.MaintenanceStatusBatchResultDTO;
+import com.cropmaint.dto.MaintenanceStatusBatchUpdateRequestDTO;
 import com.cropmaint.dto.MaintenanceStatusUpdateRequestDTO;
 import com.cropmaint.service.MaintenanceLogService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/maintenance-logs")
@@ -20,10 +29,15 @@ import java.util.Optional;
 public class MaintenanceLogController {
 
     private final MaintenanceLogService maintenanceLogService;
+    private final NdjsonWriter ndjsonWriter;
+    private final boolean requireIfMatch;
 
     @Autowired
-    public MaintenanceLogController(MaintenanceLogService maintenanceLogService) {
+    public MaintenanceLogController(MaintenanceLogService maintenanceLogService, NdjsonWriter ndjsonWriter,
+                                    @Value("${cropmaint.updates.require-if-match:false}") boolean requireIfMatch) {
         this.maintenanceLogService = maintenanceLogService;
+        this.ndjsonWriter = ndjsonWriter;
+        this.requireIfMatch = requireIfMatch;
     }
 
     @PostMapping
@@ -32,28 +46,118 @@ public class MaintenanceLogController {
         return new ResponseEntity<>(createdLog, HttpStatus.CREATED);
     }
 
+    /**
+     * A keyset page of the logs matching the filter, like /page; a full dump is /export.
+     * A request with machineId and no other filter or paging parameter still gets that machine's
+     * logs as a plain array, as it always has.
+     * @param fields Optional comma-separated subset of the response fields (e.g. id,status,logDate);
+     *               only those columns are queried and returned.
+     * @param after The nextCursor of the previous page.
+     * @param limit The page size, capped at {@link MaintenanceLogService#MAX_PAGE_SIZE}.
+     * @param ifNoneMatch A page is tagged from its own rows, so a 304 saves the response body but not the query.
+     */
     @GetMapping
-    public ResponseEntity<List<MaintenanceLogResponseDTO>> getLogs(@RequestParam(required = false) Optional<Long> machineId) {
-        List<MaintenanceLogResponseDTO> logs;
-        if (machineId.isPresent()) {
-            logs = maintenanceLogService.getLogsByMachineId(machineId.get());
-        } else {
-            logs = maintenanceLogService.getAllLogs();
+    public ResponseEntity<?> getLogs(@Valid MaintenanceLogFilterDTO filter,
+                                     @RequestParam(required = false) String fields,
+                                     @RequestParam(required = false) Long after,
+                                     @RequestParam(required = false) Integer limit,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (isMachineListing(filter, after, limit)) {
+            return getMachineLogs(filter.getMachineId(), fields, ifNoneMatch);
         }
+        int pageSize = limit != null ? limit : MaintenanceLogService.DEFAULT_PAGE_SIZE;
+        if (fields != null) {
+            // The selected fields need not include id and version, so a sparse page carries no tag.
+            return ResponseEntity.ok(maintenanceLogService.getLogsPage(filter, fields, after, pageSize));
+        }
+        CursorPageResponseDTO<MaintenanceLogResponseDTO> page = maintenanceLogService.getLogsPage(filter, after, pageSize);
+        String tag = EntityTags.of(page, MaintenanceLogResponseDTO::getId, MaintenanceLogResponseDTO::getVersion);
+        if (EntityTags.matches(ifNoneMatch, tag)) {
+            return EntityTags.notModified(tag);
+        }
+        return ResponseEntity.ok().eTag(tag).body(page);
+    }
+
+    private static boolean isMachineListing(MaintenanceLogFilterDTO filter, Long after, Integer limit) {
+        return filter.getMachineId() != null && filter.getStatus() == null && filter.getTechnicianId() == null
+                && filter.getFrom() == null && filter.getTo() == null && after == null && limit == null;
+    }
+
+    /**
+     * @param ifNoneMatch Answered with 304 from one aggregate query when the machine's logs have not changed.
+     *                    Sparse rows may lack id and version, so they are only tagged when this is sent.
+     */
+    private ResponseEntity<?> getMachineLogs(Long machineId, String fields, String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String tag = EntityTags.of(maintenanceLogService.getLogsVersion(machineId));
+            if (EntityTags.matches(ifNoneMatch, tag)) {
+                return EntityTags.notModified(tag);
+            }
+            if (fields != null) {
+                return ResponseEntity.ok().eTag(tag).body(maintenanceLogService.getLogs(machineId, fields));
+            }
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(maintenanceLogService.getLogs(machineId, fields));
+        }
+        List<MaintenanceLogResponseDTO> logs = maintenanceLogService.getLogsByMachineId(machineId);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(logs, MaintenanceLogResponseDTO::getId, MaintenanceLogResponseDTO::getVersion))
+                .body(logs);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponseDTO<MaintenanceLogResponseDTO>> getLogsPage(
+            @Valid MaintenanceLogFilterDTO filter,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + MaintenanceLogService.DEFAULT_PAGE_SIZE) int limit) {
+        CursorPageResponseDTO<MaintenanceLogResponseDTO> page = maintenanceLogService.getLogsPage(filter, after, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping("/range")
+    public ResponseEntity<List<MaintenanceLogResponseDTO>> getLogsInDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long machineId,
+            @RequestParam(required = false) Long technicianId,
+            @RequestParam(required = false) String status) {
+        List<MaintenanceLogResponseDTO> logs = maintenanceLogService.getLogsInDateRange(from, to, machineId, technicianId, status);
         return new ResponseEntity<>(logs, HttpStatus.OK);
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLogs(@Valid MaintenanceLogFilterDTO filter) {
+        StreamingResponseBody body = outputStream ->
+                maintenanceLogService.streamLogs(filter, ndjsonWriter.lineSink(outputStream));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<MaintenanceLogResponseDTO> getLogById(@PathVariable Long id) {
+    public ResponseEntity<MaintenanceLogResponseDTO> getLogById(@PathVariable Long id,
+                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String tag = EntityTags.of(maintenanceLogService.getLogVersion(id));
+            if (EntityTags.matches(ifNoneMatch, tag)) {
+                return EntityTags.notModified(tag);
+            }
+        }
         MaintenanceLogResponseDTO log = maintenanceLogService.getLogById(id);
-        return new ResponseEntity<>(log, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(EntityTags.of(log.getVersion())).body(log);
     }
 
+    /**
+     * @param ifMatch ETag the edit was based on; if the log has changed since, the update is refused with 409.
+     *                Without it the update is unconditional, unless cropmaint.updates.require-if-match is set (428).
+     */
     @PutMapping("/{id}")
     public ResponseEntity<MaintenanceLogResponseDTO> updateLog(@PathVariable Long id,
-                                                               @Valid @RequestBody MaintenanceLogRequestDTO requestDTO) {
-        MaintenanceLogResponseDTO updatedLog = maintenanceLogService.updateLog(id, requestDTO);
-        return new ResponseEntity<>(updatedLog, HttpStatus.OK);
+                                                               @Valid @RequestBody MaintenanceLogRequestDTO requestDTO,
+                                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        MaintenanceLogResponseDTO updatedLog = maintenanceLogService.updateLog(id, requestDTO, EntityTags.versionOf(ifMatch, requireIfMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(updatedLog.getVersion())).body(updatedLog);
     }
 
     @PutMapping("/{id}/status")
@@ -63,6 +167,12 @@ public class MaintenanceLogController {
         return new ResponseEntity<>(updatedLog, HttpStatus.OK);
     }
 
+    @PutMapping("/status")
+    public ResponseEntity<MaintenanceStatusBatchResultDTO> updateLogStatuses(@Valid @RequestBody MaintenanceStatusBatchUpdateRequestDTO batchUpdateDTO) {
+        MaintenanceStatusBatchResultDTO result = maintenanceLogService.updateLogStatuses(batchUpdateDTO.getIds(), batchUpdateDTO.getStatus());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteLog(@PathVariable Long id) {
         maintenanceLogService.deleteLog(id);
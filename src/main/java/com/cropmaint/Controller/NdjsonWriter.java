@@ -0,0 +1,41 @@
+package com.cropmaint.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes newline-delimited JSON to a streaming response body.
+ * The first line is flushed straight away so clients get their first byte without waiting
+ * for the servlet buffer to fill; after that the buffer is flushed every FLUSH_INTERVAL lines.
+ */
+@Component
+public class NdjsonWriter {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> Consumer<T> lineSink(OutputStream outputStream) {
+        int[] written = {0};
+        return value -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(value));
+                outputStream.write('\n');
+                if (written[0]++ % FLUSH_INTERVAL == 0) {
+                    outputStream.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
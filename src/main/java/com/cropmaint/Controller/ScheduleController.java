@@ -0,0 +1,62 @@
+package com.cropmaint.controller;
+
+import com.cropmaint.dto.ScheduleOccurrenceDTO;
+import com.cropmaint.dto.ScheduleOccurrenceFilterDTO;
+import com.cropmaint.dto.ScheduleRolloverResultDTO;
+import com.cropmaint.service.ScheduleEngine;
+import com.cropmaint.service.ScheduleOccurrenceService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+@RestController
+@RequestMapping("/api/schedules")
+public class ScheduleController {
+
+    private final ScheduleEngine scheduleEngine;
+    private final ScheduleOccurrenceService scheduleOccurrenceService;
+    private final NdjsonWriter ndjsonWriter;
+
+    @Autowired
+    public ScheduleController(ScheduleEngine scheduleEngine,
+                              ScheduleOccurrenceService scheduleOccurrenceService,
+                              NdjsonWriter ndjsonWriter) {
+        this.scheduleEngine = scheduleEngine;
+        this.scheduleOccurrenceService = scheduleOccurrenceService;
+        this.ndjsonWriter = ndjsonWriter;
+    }
+
+    // Schedules are loaded (and the window validated) before the response starts; occurrences are generated while writing.
+    @GetMapping(value = "/occurrences", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getOccurrences(@Valid ScheduleOccurrenceFilterDTO filter) {
+        Iterator<ScheduleOccurrenceDTO> occurrences = scheduleOccurrenceService.expand(filter);
+        StreamingResponseBody body = outputStream -> {
+            Consumer<ScheduleOccurrenceDTO> sink = ndjsonWriter.lineSink(outputStream);
+            occurrences.forEachRemaining(sink);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Catch-up after downtime or a bulk re-activation; safe to re-run if interrupted.
+    @PostMapping("/rollover")
+    public ResponseEntity<ScheduleRolloverResultDTO> rollOverOverdue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        ScheduleRolloverResultDTO result = scheduleEngine.catchUp(asOf != null ? asOf : LocalDate.now());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+}
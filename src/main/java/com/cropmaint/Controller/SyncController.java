@@ -0,0 +1,40 @@
+package com.cropmaint.controller;
+
+import com.cropmaint.dto.SyncChangesDTO;
+import com.cropmaint.dto.SyncLogBatchRequestDTO;
+import com.cropmaint.dto.SyncLogBatchResultDTO;
+import com.cropmaint.service.SyncService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @Autowired
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    // Without a token (first sync, or after reset=true) every row is returned.
+    @GetMapping("/changes")
+    public ResponseEntity<SyncChangesDTO> getChanges(@RequestParam(required = false) String token) {
+        return new ResponseEntity<>(syncService.getChanges(token), HttpStatus.OK);
+    }
+
+    // Always 200: each write reports its own outcome.
+    @PostMapping("/logs")
+    public ResponseEntity<SyncLogBatchResultDTO> uploadLogs(@Valid @RequestBody SyncLogBatchRequestDTO batch) {
+        return new ResponseEntity<>(syncService.applyLogWrites(batch.getWrites()), HttpStatus.OK);
+    }
+}
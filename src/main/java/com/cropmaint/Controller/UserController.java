@@ -30,9 +30,12 @@ public class UserController {
         }
     }
 
+    /**
+     * @param fields Optional comma-separated subset of the response fields; only those columns are queried and returned.
+     */
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        List<UserResponseDTO> users = userService.getAllUsers();
+    public ResponseEntity<List<?>> getAllUsers(@RequestParam(required = false) String fields) {
+        List<?> users = fields != null ? userService.getAllUsers(fields) : userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
 
@@ -0,0 +1,52 @@
+package com.cropmaint.controller;
+
+import com.cropmaint.cache.TechnicianWorkQueue;
+import com.cropmaint.dto.MaintenanceLogResponseDTO;
+import com.cropmaint.dto.WorkQueueJobDTO;
+import com.cropmaint.service.TechnicianWorkQueueService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/work-queue")
+public class WorkQueueController {
+
+    private final TechnicianWorkQueueService workQueueService;
+
+    @Autowired
+    public WorkQueueController(TechnicianWorkQueueService workQueueService) {
+        this.workQueueService = workQueueService;
+    }
+
+    // 204 when the technician has nothing to do.
+    @GetMapping("/technicians/{technicianId}/next")
+    public ResponseEntity<WorkQueueJobDTO> getNextJob(@PathVariable Long technicianId) {
+        return workQueueService.nextJob(technicianId)
+                .map(job -> new ResponseEntity<>(job, HttpStatus.OK))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/technicians/{technicianId}/claim")
+    public ResponseEntity<MaintenanceLogResponseDTO> claimNextJob(@PathVariable Long technicianId) {
+        return workQueueService.claimNext(technicianId)
+                .map(log -> new ResponseEntity<>(log, HttpStatus.OK))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/logs/{logId}/complete")
+    public ResponseEntity<MaintenanceLogResponseDTO> completeJob(@PathVariable Long logId) {
+        MaintenanceLogResponseDTO log = workQueueService.complete(logId);
+        return new ResponseEntity<>(log, HttpStatus.OK);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TechnicianWorkQueue.Stats> getStats() {
+        return new ResponseEntity<>(workQueueService.getStats(), HttpStatus.OK);
+    }
+}
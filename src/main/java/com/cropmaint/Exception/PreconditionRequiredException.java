@@ -0,0 +1,14 @@
+package com.cropmaint.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * An update was sent without the If-Match it must be conditional on.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_REQUIRED)
+public class PreconditionRequiredException extends RuntimeException {
+    public PreconditionRequiredException(String message) {
+        super(message);
+    }
+}
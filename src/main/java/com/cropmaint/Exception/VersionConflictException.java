@@ -0,0 +1,19 @@
+package com.cropmaint.exception;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * An update lost an optimistic locking race, or was made against a version (If-Match) that is no longer current.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class VersionConflictException extends OptimisticLockingFailureException {
+    public VersionConflictException(String message) {
+        super(message);
+    }
+
+    public VersionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
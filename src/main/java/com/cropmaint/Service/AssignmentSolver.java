@@ -0,0 +1,206 @@
+package com.cropmaint.service;
+
+import com.cropmaint.enums.CriticalityLevel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * Greedy technician assignment that balances open load while keeping technicians near the locations
+ * they already work at.
+ *
+ * Jobs are placed in priority order (criticality, then due date), so the most critical work lands on
+ * the least loaded technicians. Each technician's home is the location of most of their open jobs.
+ * Phase one runs per location in parallel on a fork/join pool: a location's jobs go to its own
+ * technicians, least loaded first, until they reach the fleet-wide average load. Phase two places
+ * what is left on whichever technician has the lowest load plus a travel penalty for locations they
+ * have no work at.
+ */
+public final class AssignmentSolver {
+
+    public enum JobKind { LOG, SCHEDULE }
+
+    public record Job(JobKind kind, Long id, String location, CriticalityLevel criticalityLevel, LocalDate dueDate) {
+    }
+
+    /**
+     * @param openJobsByLocation Open (pending or in-progress) job counts per machine location.
+     */
+    public record Technician(Long id, Map<String, Integer> openJobsByLocation) {
+    }
+
+    public record Assignment(Job job, Long technicianId) {
+    }
+
+    public record Plan(List<Assignment> assignments, Map<Long, Integer> loadByTechnician) {
+    }
+
+    static final Comparator<Job> PRIORITY = Comparator
+            .comparing(Job::criticalityLevel, Comparator.nullsLast(Comparator.<CriticalityLevel>reverseOrder()))
+            .thenComparing(Job::dueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Job::kind)
+            .thenComparing(Job::id);
+
+    private final int travelPenalty;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param travelPenalty Extra load a technician is charged for a job at a location they have no work at.
+     */
+    public AssignmentSolver(int travelPenalty, ForkJoinPool pool) {
+        this.travelPenalty = travelPenalty;
+        this.pool = pool;
+    }
+
+    public Plan solve(List<Job> jobs, List<Technician> technicians) {
+        if (jobs.isEmpty() || technicians.isEmpty()) {
+            return new Plan(List.of(), loadsOf(technicians.stream().map(TechnicianState::new).toList()));
+        }
+        List<TechnicianState> states = technicians.stream().map(TechnicianState::new).toList();
+        long totalLoad = jobs.size() + states.stream().mapToLong(state -> state.load).sum();
+        int targetLoad = (int) Math.ceil((double) totalLoad / states.size());
+
+        Map<String, List<Job>> jobsByLocation = jobs.stream()
+                .collect(Collectors.groupingBy(job -> locationKey(job.location())));
+        Map<String, List<TechnicianState>> techniciansByHome = states.stream()
+                .filter(state -> state.home != null)
+                .collect(Collectors.groupingBy(state -> state.home));
+
+        List<LocationPlan> locationPlans = jobsByLocation.entrySet().stream()
+                .map(entry -> new LocationPlan(entry.getValue(), techniciansByHome.getOrDefault(entry.getKey(), List.of())))
+                .toList();
+        List<Assignment> assignments = new ArrayList<>(jobs.size());
+        List<Job> overflow = new ArrayList<>();
+        for (LocationResult result : pool.invoke(new LocationPlanTask(locationPlans, 0, locationPlans.size(), targetLoad))) {
+            assignments.addAll(result.assignments());
+            overflow.addAll(result.overflow());
+        }
+
+        overflow.sort(PRIORITY);
+        for (Job job : overflow) {
+            String location = locationKey(job.location());
+            TechnicianState best = null;
+            int bestCost = Integer.MAX_VALUE;
+            for (TechnicianState state : states) {
+                int cost = state.load + (state.worksAt(location) ? 0 : travelPenalty);
+                if (cost < bestCost) {
+                    best = state;
+                    bestCost = cost;
+                }
+            }
+            best.take(location);
+            assignments.add(new Assignment(job, best.id));
+        }
+        return new Plan(assignments, loadsOf(states));
+    }
+
+    private static Map<Long, Integer> loadsOf(List<TechnicianState> states) {
+        Map<Long, Integer> loads = new HashMap<>();
+        states.forEach(state -> loads.put(state.id, state.load));
+        return loads;
+    }
+
+    private static String locationKey(String location) {
+        return Objects.requireNonNullElse(location, "");
+    }
+
+    /**
+     * Mutable load of one technician during a solve. Phase one only touches the technicians homed at
+     * the location being planned, so no state is shared between parallel tasks.
+     */
+    private static final class TechnicianState {
+
+        final Long id;
+        final Map<String, Integer> openJobsByLocation;
+        final String home;
+        int load;
+
+        TechnicianState(Technician technician) {
+            this.id = technician.id();
+            this.openJobsByLocation = new HashMap<>();
+            technician.openJobsByLocation().forEach((location, count) -> openJobsByLocation.merge(locationKey(location), count, Integer::sum));
+            this.load = openJobsByLocation.values().stream().mapToInt(Integer::intValue).sum();
+            this.home = openJobsByLocation.entrySet().stream()
+                    .max(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+        }
+
+        boolean worksAt(String location) {
+            return openJobsByLocation.getOrDefault(location, 0) > 0;
+        }
+
+        void take(String location) {
+            load++;
+            openJobsByLocation.merge(location, 1, Integer::sum);
+        }
+    }
+
+    private record LocationPlan(List<Job> jobs, List<TechnicianState> technicians) {
+    }
+
+    private record LocationResult(List<Assignment> assignments, List<Job> overflow) {
+    }
+
+    private static final class LocationPlanTask extends RecursiveTask<List<LocationResult>> {
+
+        private final List<LocationPlan> plans;
+        private final int from;
+        private final int to;
+        private final int targetLoad;
+
+        LocationPlanTask(List<LocationPlan> plans, int from, int to, int targetLoad) {
+            this.plans = plans;
+            this.from = from;
+            this.to = to;
+            this.targetLoad = targetLoad;
+        }
+
+        @Override
+        protected List<LocationResult> compute() {
+            if (to - from == 1) {
+                return List.of(planLocation(plans.get(from)));
+            }
+            int middle = (from + to) >>> 1;
+            LocationPlanTask left = new LocationPlanTask(plans, from, middle, targetLoad);
+            LocationPlanTask right = new LocationPlanTask(plans, middle, to, targetLoad);
+            left.fork();
+            List<LocationResult> results = new ArrayList<>(right.compute());
+            results.addAll(left.join());
+            return results;
+        }
+
+        private LocationResult planLocation(LocationPlan plan) {
+            List<Job> jobs = new ArrayList<>(plan.jobs());
+            jobs.sort(PRIORITY);
+            PriorityQueue<TechnicianState> leastLoaded = new PriorityQueue<>(
+                    Comparator.comparingInt((TechnicianState state) -> state.load).thenComparing(state -> state.id));
+            plan.technicians().stream().filter(state -> state.load < targetLoad).forEach(leastLoaded::add);
+
+            List<Assignment> assignments = new ArrayList<>();
+            List<Job> overflow = new ArrayList<>();
+            for (Job job : jobs) {
+                TechnicianState technician = leastLoaded.poll();
+                if (technician == null) {
+                    overflow.add(job);
+                    continue;
+                }
+                technician.take(locationKey(job.location()));
+                assignments.add(new Assignment(job, technician.id));
+                if (technician.load < targetLoad) {
+                    leastLoaded.add(technician);
+                }
+            }
+            return new LocationResult(assignments, overflow);
+        }
+    }
+}
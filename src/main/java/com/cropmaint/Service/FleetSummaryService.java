@@ -0,0 +1,101 @@
+package com.cropmaint.service;
+
+import com.cropmaint.cache.FleetStatusCounters;
+import com.cropmaint.dto.FleetSummaryResponseDTO;
+import com.cropmaint.repository.MachineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class FleetSummaryService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetSummaryService.class);
+    private static final String UNSPECIFIED = "UNSPECIFIED";
+
+    private final MachineRepository machineRepository;
+    private final FleetStatusCounters counters;
+
+    public FleetSummaryService(MachineRepository machineRepository, FleetStatusCounters counters) {
+        this.machineRepository = machineRepository;
+        this.counters = counters;
+    }
+
+    /**
+     * Builds the fleet summary from the in-memory counters.
+     * Cost depends on the number of distinct (status, criticality, location) cells, not on fleet size.
+     * @return Machine counts by status, criticality, location and by full cell.
+     */
+    public FleetSummaryResponseDTO getSummary() {
+        FleetSummaryResponseDTO summary = new FleetSummaryResponseDTO();
+        counters.snapshot().forEach((cell, count) -> {
+            String status = cell.status() != null ? cell.status().name() : UNSPECIFIED;
+            String criticality = cell.criticalityLevel() != null ? cell.criticalityLevel().name() : UNSPECIFIED;
+            String location = cell.location() != null ? cell.location() : UNSPECIFIED;
+
+            summary.setTotal(summary.getTotal() + count);
+            summary.getByStatus().merge(status, count, Long::sum);
+            summary.getByCriticality().merge(criticality, count, Long::sum);
+            summary.getByLocation().merge(location, count, Long::sum);
+            summary.getCells().add(new FleetSummaryResponseDTO.CellCount(status, criticality, location, count));
+        });
+        return summary;
+    }
+
+    /**
+     * Seeds the counters once every singleton exists, which is before the web server starts taking
+     * requests, so no machine write can bump a counter that the seed then overwrites.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        counters.replaceAll(loadCounts());
+        logger.info("Seeded fleet status counters");
+    }
+
+    /**
+     * Compares the counters with a GROUP BY over the machines table and corrects the cells that
+     * differ. Drift should only come from writes that bypass MachineService or from updates that
+     * raced the previous reconcile, so any difference is logged.
+     *
+     * Writes keep landing while the query runs, so the counters are read before and after it and a
+     * cell that moved in between is left for the next run. The others are corrected by adding the
+     * difference rather than overwriting, which keeps increments made after the second read.
+     */
+    @Scheduled(fixedDelayString = "${cropmaint.fleet-summary.reconcile-interval:PT10M}",
+            initialDelayString = "${cropmaint.fleet-summary.reconcile-interval:PT10M}")
+    public void reconcile() {
+        Map<FleetStatusCounters.Cell, Long> before = counters.snapshot();
+        Map<FleetStatusCounters.Cell, Long> actual = loadCounts();
+        Map<FleetStatusCounters.Cell, Long> tracked = counters.snapshot();
+
+        Set<FleetStatusCounters.Cell> cells = new HashSet<>(actual.keySet());
+        cells.addAll(tracked.keySet());
+        int driftingCells = 0;
+        for (FleetStatusCounters.Cell cell : cells) {
+            long trackedCount = tracked.getOrDefault(cell, 0L);
+            long actualCount = actual.getOrDefault(cell, 0L);
+            if (trackedCount != actualCount && trackedCount == before.getOrDefault(cell, 0L)) {
+                counters.add(cell, actualCount - trackedCount);
+                driftingCells++;
+            }
+        }
+        if (driftingCells > 0) {
+            logger.warn("Fleet status counters drifted in {} cell(s); corrected from database", driftingCells);
+        }
+    }
+
+    private Map<FleetStatusCounters.Cell, Long> loadCounts() {
+        Map<FleetStatusCounters.Cell, Long> counts = new HashMap<>();
+        for (MachineRepository.FleetCellCount row : machineRepository.countByStatusCriticalityAndLocation()) {
+            counts.put(new FleetStatusCounters.Cell(row.getStatus(), row.getCriticalityLevel(), row.getLocation()), row.getTotal());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,146 @@
+package com.cropmaint.service;
+
+import com.cropmaint.entity.Machine;
+import com.cropmaint.entity.MaintenanceLog;
+import com.cropmaint.entity.MaintenanceSnapshot;
+import com.cropmaint.exception.ResourceNotFoundException;
+import com.cropmaint.model.MaintenanceStatus;
+import com.cropmaint.repository.MachineRepository;
+import com.cropmaint.repository.MaintenanceLogRepository;
+import com.cropmaint.sync.SyncSequence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps {@code Machine.lastMaintenance} pointing at each machine's most recent COMPLETED log.
+ * New completions only ever move the snapshot forward; edits and deletes of the snapshot log fall
+ * back to re-reading the newest completed log.
+ *
+ * The snapshot is written through the managed Machine, normally a second-level cache hit, so the
+ * flush is a versioned UPDATE of that one row and only its cache entry is replaced. A bulk UPDATE
+ * would evict the whole machine region and every cached machine query. Callers run in
+ * {@link com.cropmaint.concurrency.OptimisticRetry}, since two logs completed on the same machine
+ * at once conflict on its version.
+ */
+@Service
+public class LastMaintenanceSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastMaintenanceSnapshotService.class);
+
+    private static final Comparator<MaintenanceLog> NEWEST_FIRST =
+            Comparator.comparing(MaintenanceLog::getLogDate).thenComparing(MaintenanceLog::getId).reversed();
+
+    private final MachineRepository machineRepository;
+    private final MaintenanceLogRepository maintenanceLogRepository;
+    private final SyncSequence syncSequence;
+    private final boolean backfillOnStartup;
+
+    public LastMaintenanceSnapshotService(MachineRepository machineRepository,
+                                          MaintenanceLogRepository maintenanceLogRepository,
+                                          SyncSequence syncSequence,
+                                          @Value("${cropmaint.last-maintenance.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.machineRepository = machineRepository;
+        this.maintenanceLogRepository = maintenanceLogRepository;
+        this.syncSequence = syncSequence;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /**
+     * Records a newly created or newly completed log if it is now the machine's latest completed one.
+     */
+    @Transactional
+    public void onLogCompleted(MaintenanceLog log) {
+        if (log.getStatus() != MaintenanceStatus.COMPLETED || log.getMachine() == null) {
+            return;
+        }
+        Machine machine = findMachine(log.getMachine().getId());
+        if (isNewer(log, machine.getLastMaintenance())) {
+            machine.setLastMaintenance(snapshotOf(log));
+        }
+    }
+
+    /**
+     * Applies a batch of completions, advancing each machine at most once, to its newest log.
+     */
+    @Transactional
+    public void onLogsCompleted(Collection<MaintenanceLog> logs) {
+        Map<Long, MaintenanceLog> newestPerMachine = new HashMap<>();
+        for (MaintenanceLog log : logs) {
+            if (log.getStatus() == MaintenanceStatus.COMPLETED && log.getMachine() != null) {
+                newestPerMachine.merge(log.getMachine().getId(), log,
+                        (current, candidate) -> NEWEST_FIRST.compare(candidate, current) < 0 ? candidate : current);
+            }
+        }
+        newestPerMachine.values().forEach(this::onLogCompleted);
+    }
+
+    /**
+     * Recomputes a machine's snapshot from its newest completed log, clearing it if there is none.
+     */
+    @Transactional
+    public void refresh(Long machineId) {
+        Machine machine = findMachine(machineId);
+        // An unchanged snapshot compares equal on flush, so it does not bump the version.
+        machine.setLastMaintenance(maintenanceLogRepository
+                .findTopByMachineIdAndStatusOrderByLogDateDescIdDesc(machineId, MaintenanceStatus.COMPLETED)
+                .map(LastMaintenanceSnapshotService::snapshotOf)
+                .orElse(null));
+    }
+
+    /**
+     * Recomputes a machine's snapshot only if it currently points at the given log.
+     */
+    @Transactional
+    public void refreshIfSnapshotOf(Long machineId, Long logId) {
+        MaintenanceSnapshot snapshot = findMachine(machineId).getLastMaintenance();
+        if (snapshot != null && logId.equals(snapshot.getLogId())) {
+            refresh(machineId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        int linked = machineRepository.backfillLastMaintenanceLogIds(syncSequence.current());
+        int filled = machineRepository.backfillLastMaintenanceDetails(syncSequence.current());
+        if (filled > 0) {
+            logger.info("Backfilled last-maintenance snapshot for {} machine(s) ({} linked)", filled, linked);
+        }
+    }
+
+    private Machine findMachine(Long machineId) {
+        return machineRepository.findById(machineId)
+                .orElseThrow(() -> new ResourceNotFoundException("Machine not found with ID: " + machineId));
+    }
+
+    // Newer by log date, then id; the log already recorded counts as newer so its own edits are applied.
+    private static boolean isNewer(MaintenanceLog log, MaintenanceSnapshot current) {
+        if (current == null || current.getDate() == null) {
+            return true;
+        }
+        int byDate = log.getLogDate().compareTo(current.getDate());
+        return byDate > 0 || (byDate == 0 && log.getId() >= current.getLogId());
+    }
+
+    private static MaintenanceSnapshot snapshotOf(MaintenanceLog log) {
+        MaintenanceSnapshot snapshot = new MaintenanceSnapshot();
+        snapshot.setLogId(log.getId());
+        snapshot.setDate(log.getLogDate());
+        snapshot.setPerformedBy(log.getPerformedBy());
+        snapshot.setCost(log.getCost());
+        return snapshot;
+    }
+}
@@ -0,0 +1,269 @@
+package com.cropmaint.service;
+
+import com.cropmaint.cache.FleetStatusCounters;
+import com.cropmaint.dto.MachineImportResultDTO;
+import com.cropmaint.dto.MachineRequestDTO;
+import com.cropmaint.entity.Machine;
+import com.cropmaint.repository.MachineRepository;
+import com.cropmaint.Service.MachineService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk machine onboarding from CSV or NDJSON.
+ * Input is read line by line and processed in chunks: each chunk is checked for duplicate
+ * machine codes with a single IN query, then persisted in its own transaction so Hibernate
+ * can send the inserts as JDBC batches. A failing chunk is rolled back on its own and its rows
+ * are retried one per transaction, so only the rows the database refuses are reported; chunks
+ * that were already committed stay imported.
+ */
+@Service
+public class MachineImportService {
+
+    private final MachineRepository machineRepository;
+    private final MachineService machineService;
+    private final FleetStatusCounters fleetCounters;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int jdbcBatchSize;
+
+    public MachineImportService(MachineRepository machineRepository,
+                                MachineService machineService,
+                                FleetStatusCounters fleetCounters,
+                                EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${cropmaint.import.chunk-size:1000}") int chunkSize,
+                                @Value("${cropmaint.import.jdbc-batch-size:500}") int jdbcBatchSize) {
+        this.machineRepository = machineRepository;
+        this.machineService = machineService;
+        this.fleetCounters = fleetCounters;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    /**
+     * Imports machines from CSV. The first line is a header naming MachineRequestDTO
+     * properties (name, machineCode, location, ...); empty cells are treated as null.
+     */
+    public MachineImportResultDTO importCsv(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        MachineImportResultDTO result = new MachineImportResultDTO();
+        String headerLine = lines.readLine();
+        if (headerLine == null) {
+            return result;
+        }
+        List<String> header = splitCsvLine(headerLine);
+
+        ImportBatch batch = new ImportBatch(result);
+        String line;
+        int rowNumber = 1;
+        while ((line = lines.readLine()) != null) {
+            rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.setTotalRows(result.getTotalRows() + 1);
+            List<String> cells = splitCsvLine(line);
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < header.size() && i < cells.size(); i++) {
+                String cell = cells.get(i).trim();
+                values.put(header.get(i).trim(), cell.isEmpty() ? null : cell);
+            }
+            batch.add(rowNumber, values);
+        }
+        batch.flush();
+        return result;
+    }
+
+    /**
+     * Imports machines from newline-delimited JSON, one MachineRequestDTO object per line.
+     */
+    public MachineImportResultDTO importNdjson(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        MachineImportResultDTO result = new MachineImportResultDTO();
+        ImportBatch batch = new ImportBatch(result);
+        String line;
+        int rowNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.setTotalRows(result.getTotalRows() + 1);
+            try {
+                batch.add(rowNumber, objectMapper.readTree(line));
+            } catch (JsonProcessingException e) {
+                batch.reject(rowNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        batch.flush();
+        return result;
+    }
+
+    private record PendingRow(int rowNumber, MachineRequestDTO request) {
+    }
+
+    /**
+     * Collects parsed rows for one chunk and writes them out once the chunk is full.
+     */
+    private class ImportBatch {
+
+        private final MachineImportResultDTO result;
+        private final Set<String> seenCodes = new HashSet<>();
+        private final List<PendingRow> pending = new ArrayList<>();
+
+        ImportBatch(MachineImportResultDTO result) {
+            this.result = result;
+        }
+
+        void add(int rowNumber, Object source) {
+            MachineRequestDTO request;
+            try {
+                request = objectMapper.convertValue(source, MachineRequestDTO.class);
+            } catch (IllegalArgumentException e) {
+                reject(rowNumber, null, "Invalid value: " + e.getMessage());
+                return;
+            }
+            String error = validate(request);
+            if (error != null) {
+                reject(rowNumber, request.getMachineCode(), error);
+                return;
+            }
+            if (!seenCodes.add(request.getMachineCode())) {
+                reject(rowNumber, request.getMachineCode(), "Duplicate machine code within the import file.");
+                return;
+            }
+            pending.add(new PendingRow(rowNumber, request));
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(int rowNumber, String machineCode, String message) {
+            result.setFailedRows(result.getFailedRows() + 1);
+            result.getErrors().add(new MachineImportResultDTO.RowError(rowNumber, machineCode, message));
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Set<String> existing = new HashSet<>(machineRepository.findExistingMachineCodes(
+                    pending.stream().map(row -> row.request().getMachineCode()).collect(Collectors.toList())));
+
+            List<PendingRow> toInsert = new ArrayList<>(pending.size());
+            for (PendingRow row : pending) {
+                if (existing.contains(row.request().getMachineCode())) {
+                    reject(row.rowNumber(), row.request().getMachineCode(), "Machine with code '" + row.request().getMachineCode() + "' already exists.");
+                } else {
+                    toInsert.add(row);
+                }
+            }
+            pending.clear();
+            if (toInsert.isEmpty()) {
+                return;
+            }
+
+            try {
+                insert(toInsert);
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                // The batch does not say which row failed; find out by giving each its own transaction.
+                for (PendingRow row : toInsert) {
+                    try {
+                        insert(List.of(row));
+                    } catch (DataAccessException | PersistenceException | TransactionException rowFailure) {
+                        reject(row.rowNumber(), row.request().getMachineCode(),
+                                NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Persists the rows in one transaction, all or nothing, and counts them once it commits.
+         */
+        private void insert(List<PendingRow> rows) {
+            List<FleetStatusCounters.Cell> insertedCells = new ArrayList<>(rows.size());
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                for (PendingRow row : rows) {
+                    Machine machine = machineService.mapRequestDtoToEntity(row.request());
+                    entityManager.persist(machine);
+                    insertedCells.add(FleetStatusCounters.Cell.of(machine));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            insertedCells.forEach(fleetCounters::increment);
+            result.setImportedRows(result.getImportedRows() + rows.size());
+        }
+    }
+
+    private static String validate(MachineRequestDTO request) {
+        if (request.getMachineCode() == null || request.getMachineCode().isBlank()) {
+            return "Machine code is required.";
+        }
+        if (request.getName() == null || request.getName().isBlank()) {
+            return "Name is required.";
+        }
+        return null;
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted cells and "" escapes.
+     * Quoted cells may not span lines.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
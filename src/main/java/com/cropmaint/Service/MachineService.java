@@ -1,63 +1,186 @@
 package com.cropmaint.Service;
 
+import com.cropmaint.cache.FleetStatusCounters;
+import com.cropmaint.cache.MachineRegistryCache;
+import com.cropmaint.cache.TechnicianWorkQueue;
+import com.cropmaint.concurrency.OptimisticRetry;
+import com.cropmaint.dto.CursorPageResponseDTO;
 import com.cropmaint.dto.MachineRequestDTO;
 import com.cropmaint.dto.MachineResponseDTO;
 import com.cropmaint.entity.Machine;
 import com.cropmaint.exception.DuplicateResourceException;
 import com.cropmaint.exception.ResourceNotFoundException;
+import com.cropmaint.exception.VersionConflictException;
 import com.cropmaint.repository.MachineRepository;
+import com.cropmaint.repository.SparseFieldRepository;
+import com.cropmaint.service.SparseFields;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.cropmaint.enums.MachineStatus;
 import com.cropmaint.enums.CriticalityLevel;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class MachineService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final MachineRepository machineRepository;
+    private final MachineRegistryCache machineRegistry;
+    private final FleetStatusCounters fleetCounters;
+    private final TechnicianWorkQueue workQueue;
+    private final SparseFieldRepository sparseFieldRepository;
+    private final OptimisticRetry optimisticRetry;
 
     @Autowired
-    public MachineService(MachineRepository machineRepository) {
+    public MachineService(MachineRepository machineRepository, MachineRegistryCache machineRegistry,
+                          FleetStatusCounters fleetCounters, TechnicianWorkQueue workQueue,
+                          SparseFieldRepository sparseFieldRepository, OptimisticRetry optimisticRetry) {
         this.machineRepository = machineRepository;
+        this.machineRegistry = machineRegistry;
+        this.fleetCounters = fleetCounters;
+        this.workQueue = workQueue;
+        this.sparseFieldRepository = sparseFieldRepository;
+        this.optimisticRetry = optimisticRetry;
     }
 
     public MachineResponseDTO createMachine(MachineRequestDTO requestDTO) {
 
-        if (machineRepository.findByMachineCode(requestDTO.getMachineCode()).isPresent()) {
+        if (machineRegistry.findByMachineCode(requestDTO.getMachineCode()).isPresent()) {
             throw new DuplicateResourceException("Machine with code '" + requestDTO.getMachineCode() + "' already exists.");
         }
 
         Machine machine = mapRequestDtoToEntity(requestDTO);
         Machine savedMachine = machineRepository.save(machine);
+        machineRegistry.put(savedMachine);
+        fleetCounters.increment(FleetStatusCounters.Cell.of(savedMachine));
         return mapEntityToResponseDto(savedMachine);
     }
 
 
+    /**
+     * Returns every machine, in id order. Rows are projected straight into the response shape,
+     * so no entity is loaded into the persistence context.
+     */
+    @Transactional(readOnly = true)
     public List<MachineResponseDTO> getAllMachines() {
-        return machineRepository.findAll().stream()
-                .map(this::mapEntityToResponseDto)
+        return machineRepository.findAllViews().stream()
+                .map(this::mapViewToResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns every machine, in id order, with only the requested fields selected and returned.
+     * @param fields Comma-separated MachineResponseDTO field names.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllMachines(String fields) {
+        SparseFieldRepository.Projection projection = SparseFieldRepository.Projection.MACHINE;
+        return sparseFieldRepository.findAll(projection, SparseFields.parse(fields, projection));
+    }
+
+    /**
+     * Returns the machines whose id is greater than {@code afterId}, in id order.
+     * Fetches one extra row to know whether another page exists without a count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<MachineResponseDTO> getMachinesPage(Long afterId, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<MachineRepository.MachineView> machines = machineRepository.findViewsByIdGreaterThan(
+                afterId != null ? afterId : 0L, Limit.of(pageSize + 1));
+
+        boolean hasMore = machines.size() > pageSize;
+        List<MachineResponseDTO> items = machines.stream()
+                .limit(pageSize)
+                .map(this::mapViewToResponseDto)
+                .collect(Collectors.toList());
+        Long nextCursor = items.isEmpty() ? afterId : items.get(items.size() - 1).getId();
+        return new CursorPageResponseDTO<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Pushes every machine, in id order, to {@code sink} while reading from a forward-only cursor.
+     * Rows are projected rather than loaded as entities, so the persistence context stays empty.
+     */
+    @Transactional(readOnly = true)
+    public void streamMachines(Consumer<MachineResponseDTO> sink) {
+        try (Stream<MachineRepository.MachineView> machines = machineRepository.streamAllOrderById()) {
+            machines.forEach(machine -> sink.accept(mapViewToResponseDto(machine)));
+        }
+    }
+
+    /**
+     * Returns the machines written by the transactions numbered after {@code after} up to {@code upTo}, in id order.
+     * @see com.cropmaint.sync.SyncSequence
+     */
+    @Transactional(readOnly = true)
+    public List<MachineResponseDTO> getMachinesChangedBetween(long after, long upTo) {
+        return machineRepository.findViewsChangedBetween(after, upTo).stream()
+                .map(this::mapViewToResponseDto)
                 .collect(Collectors.toList());
     }
 
+    // Loads the entity rather than a projection: single machines are served from the second-level cache.
     public MachineResponseDTO getMachineById(Long id) {
         Machine machine = machineRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Machine not found with ID: " + id));
         return mapEntityToResponseDto(machine);
     }
 
-    public MachineResponseDTO updateMachine(Long id, MachineRequestDTO requestDTO) {
+    /**
+     * @return The machine's current version, for conditional GETs. Served from the second-level cache like getMachineById.
+     */
+    public Long getMachineVersion(Long id) {
+        return machineRepository.findById(id)
+                .map(Machine::getVersion)
+                .orElseThrow(() -> new ResourceNotFoundException("Machine not found with ID: " + id));
+    }
+
+    /**
+     * @return A fingerprint of the whole fleet, for conditional GETs of the machine list.
+     */
+    @Transactional(readOnly = true)
+    public MachineRepository.CollectionVersion getMachinesVersion() {
+        return machineRepository.findCollectionVersion();
+    }
+
+    /**
+     * Replaces a machine's fields. The machine is read and merged back in separate transactions, so
+     * the merge's version check catches any write in between, including a last-maintenance update;
+     * the update is then re-run against the fresh row.
+     * An expected version only conflicts with edits: last-maintenance updates bump the version too,
+     * but they do not touch the fields a client edits, so an If-Match from before them still holds.
+     * @param expectedVersion The version the client's edit was based on (If-Match), or null.
+     * @throws VersionConflictException if the machine has been edited since expectedVersion, or kept changing while retrying.
+     */
+    public MachineResponseDTO updateMachine(Long id, MachineRequestDTO requestDTO, Long expectedVersion) {
+        return optimisticRetry.execute("Machine", true, () -> applyUpdate(id, requestDTO, expectedVersion));
+    }
+
+    private MachineResponseDTO applyUpdate(Long id, MachineRequestDTO requestDTO, Long expectedVersion) {
         Machine existingMachine = machineRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Machine not found with ID: " + id));
+        if (expectedVersion != null
+                && (expectedVersion < existingMachine.getEditedVersion() || expectedVersion > existingMachine.getVersion())) {
+            throw new VersionConflictException("Machine " + id + " was edited at version " + existingMachine.getEditedVersion()
+                    + ", after " + expectedVersion + "; reload it and try again.");
+        }
 
-        Optional<Machine> machineWithSameCode = machineRepository.findByMachineCode(requestDTO.getMachineCode());
-        if (machineWithSameCode.isPresent() && !machineWithSameCode.get().getId().equals(id)) {
+        Optional<MachineRegistryCache.Entry> machineWithSameCode = machineRegistry.findByMachineCode(requestDTO.getMachineCode());
+        if (machineWithSameCode.isPresent() && !machineWithSameCode.get().id().equals(id)) {
             throw new DuplicateResourceException("Machine with code '" + requestDTO.getMachineCode() + "' already exists for another machine.");
         }
 
+        FleetStatusCounters.Cell previousCell = FleetStatusCounters.Cell.of(existingMachine);
         existingMachine.setName(requestDTO.getName());
         existingMachine.setMachineCode(requestDTO.getMachineCode());
         existingMachine.setLocation(requestDTO.getLocation());
@@ -68,20 +191,36 @@ public class MachineService {
         existingMachine.setModelNumber(requestDTO.getModelNumber());
         existingMachine.setSerialNumber(requestDTO.getSerialNumber());
         existingMachine.setCriticalityLevel(requestDTO.getCriticalityLevel());
+        // The version this save produces; the merge fails instead if the row moved on since it was read.
+        existingMachine.setEditedVersion(existingMachine.getVersion() + 1);
 
         Machine updatedMachine = machineRepository.save(existingMachine);
+        machineRegistry.put(updatedMachine);
+        fleetCounters.move(previousCell, FleetStatusCounters.Cell.of(updatedMachine));
+        if (previousCell.criticalityLevel() != updatedMachine.getCriticalityLevel()) {
+            workQueue.updateCriticality(id, updatedMachine.getCriticalityLevel());
+        }
         return mapEntityToResponseDto(updatedMachine);
     }
 
     public void deleteMachine(Long id) {
-        if (!machineRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Machine not found with ID: " + id);
-        }
+        MachineRegistryCache.Entry machine = machineRegistry.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Machine not found with ID: " + id));
         machineRepository.deleteById(id);
+        machineRegistry.evict(id);
+        fleetCounters.decrement(FleetStatusCounters.Cell.of(machine));
+        workQueue.removeMachine(id);
+    }
+
+    public MachineRegistryCache.Stats getRegistryStats() {
+        return machineRegistry.stats();
     }
 
 
-    private Machine mapRequestDtoToEntity(MachineRequestDTO dto) {
+    /**
+     * Builds an unsaved machine from the request; also used by the bulk import.
+     */
+    public Machine mapRequestDtoToEntity(MachineRequestDTO dto) {
         Machine machine = new Machine();
         machine.setName(dto.getName());
         machine.setMachineCode(dto.getMachineCode());
@@ -96,7 +235,7 @@ public class MachineService {
         return machine;
     }
 
-    private MachineResponseDTO mapEntityToResponseDto(Machine machine) {
+    MachineResponseDTO mapEntityToResponseDto(Machine machine) {
         MachineResponseDTO dto = new MachineResponseDTO();
         dto.setId(machine.getId());
         dto.setName(machine.getName());
@@ -109,6 +248,34 @@ public class MachineService {
         dto.setModelNumber(machine.getModelNumber());
         dto.setSerialNumber(machine.getSerialNumber());
         dto.setCriticalityLevel(machine.getCriticalityLevel());
+        if (machine.getLastMaintenance() != null) {
+            dto.setLastMaintenanceLogId(machine.getLastMaintenance().getLogId());
+            dto.setLastMaintenanceDate(machine.getLastMaintenance().getDate());
+            dto.setLastMaintenancePerformedBy(machine.getLastMaintenance().getPerformedBy());
+            dto.setLastMaintenanceCost(machine.getLastMaintenance().getCost());
+        }
+        dto.setVersion(machine.getVersion());
+        return dto;
+    }
+
+    MachineResponseDTO mapViewToResponseDto(MachineRepository.MachineView machine) {
+        MachineResponseDTO dto = new MachineResponseDTO();
+        dto.setId(machine.id());
+        dto.setName(machine.name());
+        dto.setMachineCode(machine.machineCode());
+        dto.setLocation(machine.location());
+        dto.setInstallDate(machine.installDate());
+        dto.setStatus(machine.status());
+        dto.setMachineType(machine.machineType());
+        dto.setManufacturer(machine.manufacturer());
+        dto.setModelNumber(machine.modelNumber());
+        dto.setSerialNumber(machine.serialNumber());
+        dto.setCriticalityLevel(machine.criticalityLevel());
+        dto.setLastMaintenanceLogId(machine.lastMaintenanceLogId());
+        dto.setLastMaintenanceDate(machine.lastMaintenanceDate());
+        dto.setLastMaintenancePerformedBy(machine.lastMaintenancePerformedBy());
+        dto.setLastMaintenanceCost(machine.lastMaintenanceCost());
+        dto.setVersion(machine.version());
         return dto;
     }
 }
\ No newline at end of file
@@ -1,30 +1,78 @@
 package com.cropmaint.service;
 
+import com.cropmaint.cache.MachineRegistryCache;
+import com.cropmaint.cache.TechnicianWorkQueue;
+import com.cropmaint.concurrency.OptimisticRetry;
+import com.cropmaint.dto.CursorPageResponseDTO;
+import com.cropmaint.dto.MaintenanceLogFilterDTO;
 import com.cropmaint.dto.MaintenanceLogRequestDTO;
 import com.cropmaint.dto.MaintenanceLogResponseDTO;
+import com.cropmaint.dto.MaintenanceStatusBatchResultDTO;
 import com.cropmaint.entity.Machine;
 import com.cropmaint.entity.MaintenanceLog;
+import com.cropmaint.entity.User;
+import com.cropmaint.exception.BadRequestException;
 import com.cropmaint.exception.InvalidStatusTransitionException; // Import new exception
 import com.cropmaint.exception.ResourceNotFoundException;
+import com.cropmaint.exception.VersionConflictException;
 import com.cropmaint.model.MaintenanceStatus; // Import the enum
 import com.cropmaint.repository.MachineRepository;
 import com.cropmaint.repository.MaintenanceLogRepository;
+import com.cropmaint.repository.SparseFieldRepository;
+import com.cropmaint.sync.SyncSequence;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class MaintenanceLogService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int BATCH_CHUNK_SIZE = 1000;
+
     private final MaintenanceLogRepository maintenanceLogRepository;
     private final MachineRepository machineRepository;
+    private final MachineRegistryCache machineRegistry;
+    private final LastMaintenanceSnapshotService lastMaintenanceSnapshotService;
+    private final TechnicianWorkQueue workQueue;
+    private final EntityManager entityManager;
+    private final SparseFieldRepository sparseFieldRepository;
+    private final OptimisticRetry optimisticRetry;
+    private final SyncSequence syncSequence;
 
     @Autowired
-    public MaintenanceLogService(MaintenanceLogRepository maintenanceLogRepository, MachineRepository machineRepository) {
+    public MaintenanceLogService(MaintenanceLogRepository maintenanceLogRepository, MachineRepository machineRepository,
+                                 MachineRegistryCache machineRegistry,
+                                 LastMaintenanceSnapshotService lastMaintenanceSnapshotService,
+                                 TechnicianWorkQueue workQueue,
+                                 EntityManager entityManager,
+                                 SparseFieldRepository sparseFieldRepository,
+                                 OptimisticRetry optimisticRetry,
+                                 SyncSequence syncSequence) {
         this.maintenanceLogRepository = maintenanceLogRepository;
         this.machineRepository = machineRepository;
+        this.machineRegistry = machineRegistry;
+        this.lastMaintenanceSnapshotService = lastMaintenanceSnapshotService;
+        this.workQueue = workQueue;
+        this.entityManager = entityManager;
+        this.sparseFieldRepository = sparseFieldRepository;
+        this.optimisticRetry = optimisticRetry;
+        this.syncSequence = syncSequence;
     }
 
     /**
@@ -34,10 +82,25 @@ public class MaintenanceLogService {
      * @return The created MaintenanceLog as a ResponseDTO.
      */
     public MaintenanceLogResponseDTO createLog(MaintenanceLogRequestDTO requestDTO) {
-        Machine machine = machineRepository.findById(requestDTO.getMachineId())
-                .orElseThrow(() -> new ResourceNotFoundException("Machine not found with ID: " + requestDTO.getMachineId()));
+        return createLog(requestDTO, null);
+    }
+
+    /**
+     * Creates a Maintenance Log uploaded by an offline device.
+     * @param clientRef The device's own id for the log; unique, so the same upload cannot create two logs.
+     * Runs in a transaction per attempt: a completed log moves the machine's snapshot, which is retried
+     * when another log of the same machine moved it first.
+     * @throws org.springframework.dao.DataIntegrityViolationException if a log with this clientRef exists.
+     */
+    public MaintenanceLogResponseDTO createLog(MaintenanceLogRequestDTO requestDTO, String clientRef) {
+        return optimisticRetry.executeInTransaction("Machine", true, () -> applyCreate(requestDTO, clientRef));
+    }
+
+    private MaintenanceLogResponseDTO applyCreate(MaintenanceLogRequestDTO requestDTO, String clientRef) {
+        Machine machine = resolveMachine(requestDTO.getMachineId());
 
         MaintenanceLog log = mapRequestDtoToEntity(requestDTO, machine);
+        log.setClientRef(clientRef);
 
         // Set initial status if not provided, or parse if provided
         if (requestDTO.getStatus() == null || requestDTO.getStatus().trim().isEmpty()) {
@@ -51,16 +114,117 @@ public class MaintenanceLogService {
         }
 
         MaintenanceLog savedLog = maintenanceLogRepository.save(log);
+        lastMaintenanceSnapshotService.onLogCompleted(savedLog);
+        syncWorkQueue(savedLog);
         return mapEntityToResponseDto(savedLog);
     }
 
     /**
-     * Retrieves all Maintenance Logs.
-     * @return A list of all MaintenanceLogs as ResponseDTOs.
+     * Retrieves the Maintenance Logs of one machine, in ID order, with only the requested fields
+     * selected and returned.
+     * @param machineId The machine whose logs are listed.
+     * @param fields Comma-separated MaintenanceLogResponseDTO field names.
+     * @throws ResourceNotFoundException if the machine does not exist.
+     * @throws BadRequestException if fields names no field or an unknown one.
      */
-    public List<MaintenanceLogResponseDTO> getAllLogs() {
-        return maintenanceLogRepository.findAll().stream()
-                .map(this::mapEntityToResponseDto)
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getLogs(Long machineId, String fields) {
+        List<String> selected = SparseFields.parse(fields, SparseFieldRepository.Projection.MAINTENANCE_LOG);
+        if (!machineRegistry.existsById(machineId)) {
+            throw new ResourceNotFoundException("Machine not found with ID: " + machineId);
+        }
+        return sparseFieldRepository.findLogsByMachineId(selected, machineId);
+    }
+
+    /**
+     * Retrieves one keyset page of Maintenance Logs matching the filter, in ID order.
+     * @param filter Optional machine, status, technician and log date range filters.
+     * @param afterId Only logs with a greater ID are returned; null starts from the beginning.
+     * @param limit Requested page size, capped at MAX_PAGE_SIZE.
+     * @return The page, with the cursor for the next one.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<MaintenanceLogResponseDTO> getLogsPage(MaintenanceLogFilterDTO filter, Long afterId, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<MaintenanceLogRepository.LogView> logs = maintenanceLogRepository.findFilteredPage(
+                afterId != null ? afterId : 0L,
+                filter.getMachineId(), parseOptionalStatus(filter.getStatus()), filter.getTechnicianId(),
+                filter.getFrom(), filter.getTo(),
+                Limit.of(pageSize + 1));
+
+        boolean hasMore = logs.size() > pageSize;
+        List<MaintenanceLogResponseDTO> items = logs.stream()
+                .limit(pageSize)
+                .map(this::mapViewToResponseDto)
+                .collect(Collectors.toList());
+        Long nextCursor = items.isEmpty() ? afterId : items.get(items.size() - 1).getId();
+        return new CursorPageResponseDTO<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Retrieves one keyset page of Maintenance Logs matching the filter, in ID order, with only the
+     * requested fields selected and returned.
+     * @param filter Optional machine, status, technician and log date range filters.
+     * @param fields Comma-separated MaintenanceLogResponseDTO field names.
+     * @param afterId Only logs with a greater ID are returned; null starts from the beginning.
+     * @param limit Requested page size, capped at MAX_PAGE_SIZE.
+     * @throws BadRequestException if fields names no field or an unknown one.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<Map<String, Object>> getLogsPage(MaintenanceLogFilterDTO filter, String fields,
+                                                                  Long afterId, int limit) {
+        List<String> selected = SparseFields.parse(fields, SparseFieldRepository.Projection.MAINTENANCE_LOG);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        SparseFieldRepository.Page page = sparseFieldRepository.findLogPage(selected,
+                filter.getMachineId(), parseOptionalStatus(filter.getStatus()), filter.getTechnicianId(),
+                filter.getFrom(), filter.getTo(),
+                afterId != null ? afterId : 0L, pageSize);
+        Long nextCursor = page.lastId() != null ? page.lastId() : afterId;
+        return new CursorPageResponseDTO<>(page.rows(), nextCursor, page.hasMore());
+    }
+
+    /**
+     * Pushes every Maintenance Log matching the filter, in ID order, to {@code sink}.
+     * Rows are read from a JDBC fetch-size cursor as projections, never as managed entities, so
+     * heap use does not grow with the number of logs exported.
+     * @param filter Optional machine, status, technician and log date range filters.
+     * @param sink Receives each mapped log.
+     */
+    @Transactional(readOnly = true)
+    public void streamLogs(MaintenanceLogFilterDTO filter, Consumer<MaintenanceLogResponseDTO> sink) {
+        try (Stream<MaintenanceLogRepository.LogView> logs = maintenanceLogRepository.streamFiltered(
+                filter.getMachineId(), parseOptionalStatus(filter.getStatus()), filter.getTechnicianId(),
+                filter.getFrom(), filter.getTo())) {
+            logs.forEach(log -> sink.accept(mapViewToResponseDto(log)));
+        }
+    }
+
+    /**
+     * Retrieves Maintenance Logs with a log date in [from, to], ordered by log date,
+     * for one machine, one technician in one status, or one status.
+     * Each combination maps to a query backed by a composite index on maintenance_logs.
+     * @throws BadRequestException if the range is missing or inverted, or the filter combination is unsupported.
+     */
+    @Transactional(readOnly = true)
+    public List<MaintenanceLogResponseDTO> getLogsInDateRange(LocalDate from, LocalDate to, Long machineId,
+                                                              Long technicianId, String statusString) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new BadRequestException("A date range with from <= to is required.");
+        }
+        MaintenanceStatus status = parseOptionalStatus(statusString);
+
+        List<MaintenanceLogRepository.LogView> logs;
+        if (machineId != null && technicianId == null && status == null) {
+            logs = maintenanceLogRepository.findViewsByMachineIdAndLogDateBetween(machineId, from, to);
+        } else if (technicianId != null && machineId == null && status != null) {
+            logs = maintenanceLogRepository.findViewsByTechnicianIdAndStatusAndLogDateBetween(technicianId, status, from, to);
+        } else if (status != null && machineId == null && technicianId == null) {
+            logs = maintenanceLogRepository.findViewsByStatusAndLogDateBetween(status, from, to);
+        } else {
+            throw new BadRequestException("Filter by machineId, by technicianId and status, or by status.");
+        }
+        return logs.stream()
+                .map(this::mapViewToResponseDto)
                 .collect(Collectors.toList());
     }
 
@@ -70,40 +234,97 @@ public class MaintenanceLogService {
      * @param machineId The ID of the machine.
      * @return A list of MaintenanceLogs for the specified machine as ResponseDTOs.
      */
+    @Transactional(readOnly = true)
     public List<MaintenanceLogResponseDTO> getLogsByMachineId(Long machineId) {
-        if (!machineRepository.existsById(machineId)) {
+        if (!machineRegistry.existsById(machineId)) {
             throw new ResourceNotFoundException("Machine not found with ID: " + machineId);
         }
-        return maintenanceLogRepository.findByMachineId(machineId).stream()
-                .map(this::mapEntityToResponseDto)
+        return maintenanceLogRepository.findViewsByMachineId(machineId).stream()
+                .map(this::mapViewToResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the logs written by the transactions numbered after {@code after} up to {@code upTo}, in id order.
+     * @see com.cropmaint.sync.SyncSequence
+     */
+    @Transactional(readOnly = true)
+    public List<MaintenanceLogResponseDTO> getLogsChangedBetween(long after, long upTo) {
+        return maintenanceLogRepository.findViewsChangedBetween(after, upTo).stream()
+                .map(this::mapViewToResponseDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * @return The log created from the offline upload with this client reference, if any.
+     */
+    @Transactional(readOnly = true)
+    public Optional<MaintenanceLogResponseDTO> findLogByClientRef(String clientRef) {
+        return maintenanceLogRepository.findViewByClientRef(clientRef).map(this::mapViewToResponseDto);
+    }
+
     /**
      * Retrieves a single Maintenance Log by its ID.
      * Throws ResourceNotFoundException if the log is not found.
      * @param id The ID of the maintenance log.
      * @return The MaintenanceLog as a ResponseDTO.
      */
+    @Transactional(readOnly = true)
     public MaintenanceLogResponseDTO getLogById(Long id) {
-        MaintenanceLog log = maintenanceLogRepository.findById(id)
+        return maintenanceLogRepository.findViewById(id)
+                .map(this::mapViewToResponseDto)
                 .orElseThrow(() -> new ResourceNotFoundException("Maintenance Log not found with ID: " + id));
-        return mapEntityToResponseDto(log);
+    }
+
+    /**
+     * @return The log's current version, for conditional GETs.
+     * @throws ResourceNotFoundException if the log is not found.
+     */
+    @Transactional(readOnly = true)
+    public Long getLogVersion(Long id) {
+        return maintenanceLogRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Maintenance Log not found with ID: " + id));
+    }
+
+    /**
+     * @return A fingerprint of one machine's logs, for conditional GETs of the list.
+     * @throws ResourceNotFoundException if the machine does not exist.
+     */
+    @Transactional(readOnly = true)
+    public MachineRepository.CollectionVersion getLogsVersion(Long machineId) {
+        if (!machineRegistry.existsById(machineId)) {
+            throw new ResourceNotFoundException("Machine not found with ID: " + machineId);
+        }
+        return maintenanceLogRepository.findCollectionVersionByMachineId(machineId);
     }
 
     /**
      * Updates an existing Maintenance Log.
+     * Each attempt runs in its own transaction and checks the expected version again, so a retry only
+     * absorbs a conflict on the machine snapshot the edit refreshes; a changed log is a conflict.
+     * Without an expected version the edit applies to whatever the log holds when it runs.
      * Throws ResourceNotFoundException if the log or associated machine is not found.
      * @param id The ID of the log to update.
      * @param requestDTO The DTO containing updated log details.
+     * @param expectedVersion The version the client's edit was based on (If-Match), or null.
      * @return The updated MaintenanceLog as a ResponseDTO.
+     * @throws VersionConflictException if the log is not at expectedVersion, or the machine kept changing while retrying.
      */
-    public MaintenanceLogResponseDTO updateLog(Long id, MaintenanceLogRequestDTO requestDTO) {
+    public MaintenanceLogResponseDTO updateLog(Long id, MaintenanceLogRequestDTO requestDTO, Long expectedVersion) {
+        return optimisticRetry.executeInTransaction("MaintenanceLog", true,
+                () -> applyUpdate(id, requestDTO, expectedVersion));
+    }
+
+    private MaintenanceLogResponseDTO applyUpdate(Long id, MaintenanceLogRequestDTO requestDTO, Long expectedVersion) {
         MaintenanceLog existingLog = maintenanceLogRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Maintenance Log not found with ID: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(existingLog.getVersion())) {
+            throw new VersionConflictException("Maintenance Log " + id + " is at version " + existingLog.getVersion()
+                    + ", not " + expectedVersion + "; reload it and try again.");
+        }
+        Long previousMachineId = existingLog.getMachine().getId();
 
-        Machine machine = machineRepository.findById(requestDTO.getMachineId())
-                .orElseThrow(() -> new ResourceNotFoundException("Machine not found with ID: " + requestDTO.getMachineId()));
+        Machine machine = resolveMachine(requestDTO.getMachineId());
 
         existingLog.setLogDate(requestDTO.getLogDate());
         existingLog.setDescription(requestDTO.getDescription());
@@ -122,43 +343,134 @@ public class MaintenanceLogService {
             existingLog.setStatus(newStatus);
         }
 
-        MaintenanceLog updatedLog = maintenanceLogRepository.save(existingLog);
+        // Flushed now so the response carries the version this update produced.
+        MaintenanceLog updatedLog = maintenanceLogRepository.saveAndFlush(existingLog);
+        if (updatedLog.getStatus() == MaintenanceStatus.COMPLETED) {
+            // Date, cost or machine may have changed on a completed log, so recompute rather than advance.
+            lastMaintenanceSnapshotService.refresh(updatedLog.getMachine().getId());
+            if (!previousMachineId.equals(updatedLog.getMachine().getId())) {
+                lastMaintenanceSnapshotService.refresh(previousMachineId);
+            }
+        }
+        syncWorkQueue(updatedLog);
         return mapEntityToResponseDto(updatedLog);
     }
 
     /**
      * Updates the status of an existing Maintenance Log.
-     * Implements business logic for valid status transitions.
+     * The transition is applied as a single conditional UPDATE guarded by the allowed predecessor
+     * statuses, so concurrent updates cannot overwrite each other; the current status is only read
+     * when the update matched no row, to tell a missing log from an illegal transition. The response
+     * is read back as a projection; the log and machine entities are only loaded by a completion,
+     * which may advance the machine's last-maintenance snapshot.
      * @param id The ID of the log to update.
      * @param newStatusString The new status as a string.
      * @return The updated MaintenanceLog as a ResponseDTO.
      * @throws ResourceNotFoundException if the log is not found.
-     * @throws InvalidStatusTransitionException if the status transition is not allowed.
-     * @throws IllegalArgumentException if the newStatusString is not a valid enum name.
+     * @throws InvalidStatusTransitionException if the status value is unknown or the transition is not allowed.
      */
     public MaintenanceLogResponseDTO updateLogStatus(Long id, String newStatusString) {
-        MaintenanceLog existingLog = maintenanceLogRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Maintenance Log not found with ID: " + id));
+        MaintenanceStatus newStatus = parseStatus(newStatusString);
+        return optimisticRetry.executeInTransaction("Machine", true, () -> applyStatus(id, newStatus));
+    }
 
-        MaintenanceStatus oldStatus = existingLog.getStatus();
-        MaintenanceStatus newStatus;
-        try {
-            newStatus = MaintenanceStatus.valueOf(newStatusString.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new InvalidStatusTransitionException("Invalid status value: " + newStatusString + ". Must be one of PENDING, IN_PROGRESS, COMPLETED, CANCELED.");
-        }
+    private MaintenanceLogResponseDTO applyStatus(Long id, MaintenanceStatus newStatus) {
 
-        if (!isValidTransition(oldStatus, newStatus)) {
+        int updated = maintenanceLogRepository.compareAndSetStatus(
+                id, newStatus, MaintenanceStatusTransitions.allowedPredecessors(newStatus), syncSequence.current());
+        if (updated == 0) {
+            MaintenanceStatus currentStatus = maintenanceLogRepository.findStatusById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Maintenance Log not found with ID: " + id));
             throw new InvalidStatusTransitionException(
-                    "Invalid status transition for Log ID " + id + ": Cannot change from " + oldStatus + " to " + newStatus
+                    "Invalid status transition for Log ID " + id + ": Cannot change from " + currentStatus + " to " + newStatus
             );
         }
+        MaintenanceLogRepository.LogView updatedLog = maintenanceLogRepository.findViewById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Maintenance Log not found with ID: " + id));
+        if (newStatus == MaintenanceStatus.COMPLETED) {
+            maintenanceLogRepository.findById(id).ifPresent(lastMaintenanceSnapshotService::onLogCompleted);
+        }
+        syncWorkQueue(updatedLog.id(), updatedLog.status(), updatedLog.machineId(), updatedLog.technicianId(), updatedLog.logDate());
+        return mapViewToResponseDto(updatedLog);
+    }
 
-        existingLog.setStatus(newStatus);
-        MaintenanceLog updatedLog = maintenanceLogRepository.save(existingLog);
-        return mapEntityToResponseDto(updatedLog);
+    /**
+     * Assigns a PENDING log to a technician and moves it to IN_PROGRESS with one conditional UPDATE.
+     * @return The claimed log, or empty if it is no longer pending or belongs to another technician.
+     */
+    @Transactional
+    public Optional<MaintenanceLogResponseDTO> claimLog(Long id, Long technicianId) {
+        int claimed = maintenanceLogRepository.claim(id, entityManager.getReference(User.class, technicianId),
+                MaintenanceStatus.PENDING, MaintenanceStatus.IN_PROGRESS, syncSequence.current());
+        if (claimed == 0) {
+            // Our copy of the job is stale; replace it with what the database says now.
+            maintenanceLogRepository.findWorkQueueJobById(id, MaintenanceStatus.PENDING)
+                    .ifPresentOrElse(job -> workQueue.put(TechnicianWorkQueue.Job.of(job)), () -> workQueue.remove(id));
+            return Optional.empty();
+        }
+        workQueue.removeAfterCommit(List.of(id));
+        return maintenanceLogRepository.findById(id).map(this::mapEntityToResponseDto);
+    }
+
+
+    /**
+     * Moves many logs to the same status in one transaction, re-run whole if a machine snapshot it advances conflicts.
+     * The current statuses are read and row-locked with one SELECT ... FOR UPDATE per chunk of ids,
+     * and every legal transition is then applied with one conditional UPDATE per chunk.
+     * @param ids The IDs of the logs to update; duplicates are ignored.
+     * @param newStatusString The target status as a string.
+     * @return The outcome for every requested log, in request order.
+     * @throws InvalidStatusTransitionException if the status value is unknown.
+     */
+    public MaintenanceStatusBatchResultDTO updateLogStatuses(List<Long> ids, String newStatusString) {
+        MaintenanceStatus newStatus = parseStatus(newStatusString);
+        return optimisticRetry.executeInTransaction("Machine", true, () -> applyStatuses(ids, newStatus));
     }
 
+    private MaintenanceStatusBatchResultDTO applyStatuses(List<Long> ids, MaintenanceStatus newStatus) {
+        Set<MaintenanceStatus> allowedFrom = MaintenanceStatusTransitions.allowedPredecessors(newStatus);
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        Map<Long, MaintenanceStatus> currentStatuses = new HashMap<>();
+        for (List<Long> chunk : chunks(distinctIds)) {
+            for (MaintenanceLogRepository.LogStatusView row : maintenanceLogRepository.lockStatusesByIdIn(chunk)) {
+                currentStatuses.put(row.getId(), row.getStatus() != null ? MaintenanceStatus.valueOf(row.getStatus()) : null);
+            }
+        }
+
+        MaintenanceStatusBatchResultDTO result = new MaintenanceStatusBatchResultDTO();
+        result.setStatus(newStatus.name());
+        List<Long> toUpdate = new ArrayList<>();
+        for (Long id : distinctIds) {
+            MaintenanceStatusBatchResultDTO.Outcome outcome;
+            MaintenanceStatus current = currentStatuses.get(id);
+            if (!currentStatuses.containsKey(id)) {
+                outcome = MaintenanceStatusBatchResultDTO.Outcome.NOT_FOUND;
+            } else if (current == newStatus) {
+                outcome = MaintenanceStatusBatchResultDTO.Outcome.UNCHANGED;
+            } else if (current != null && allowedFrom.contains(current)) {
+                outcome = MaintenanceStatusBatchResultDTO.Outcome.UPDATED;
+                toUpdate.add(id);
+            } else {
+                outcome = MaintenanceStatusBatchResultDTO.Outcome.INVALID_TRANSITION;
+            }
+            result.getResults().add(new MaintenanceStatusBatchResultDTO.LogResult(
+                    id, current != null ? current.name() : null, outcome));
+        }
+
+        int updated = 0;
+        for (List<Long> chunk : chunks(toUpdate)) {
+            updated += maintenanceLogRepository.compareAndSetStatusIn(chunk, newStatus, allowedFrom, syncSequence.current());
+        }
+        if (newStatus != MaintenanceStatus.PENDING) {
+            workQueue.removeAfterCommit(toUpdate);
+        }
+        if (newStatus == MaintenanceStatus.COMPLETED && !toUpdate.isEmpty()) {
+            lastMaintenanceSnapshotService.onLogsCompleted(maintenanceLogRepository.findAllById(toUpdate));
+        }
+        result.setUpdatedCount(updated);
+        return result;
+    }
 
     /**
      * Deletes a Maintenance Log by its ID.
@@ -166,10 +478,50 @@ public class MaintenanceLogService {
      * @param id The ID of the log to delete.
      */
     public void deleteLog(Long id) {
-        if (!maintenanceLogRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Maintenance Log not found with ID: " + id);
+        optimisticRetry.executeInTransaction("Machine", true, () -> {
+            applyDelete(id);
+            return null;
+        });
+    }
+
+    private void applyDelete(Long id) {
+        MaintenanceLog log = maintenanceLogRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Maintenance Log not found with ID: " + id));
+        maintenanceLogRepository.delete(log);
+        workQueue.removeAfterCommit(List.of(id));
+        if (log.getStatus() == MaintenanceStatus.COMPLETED) {
+            lastMaintenanceSnapshotService.refreshIfSnapshotOf(log.getMachine().getId(), id);
         }
-        maintenanceLogRepository.deleteById(id);
+    }
+
+    /**
+     * Resolves the machine a log belongs to. Existence is answered by the registry cache,
+     * and the association is set through a reference, so no machine row is read.
+     */
+    private Machine resolveMachine(Long machineId) {
+        if (!machineRegistry.existsById(machineId)) {
+            throw new ResourceNotFoundException("Machine not found with ID: " + machineId);
+        }
+        return machineRepository.getReferenceById(machineId);
+    }
+
+    /**
+     * Adds a PENDING log to the technician work queue, or takes any other log out of it, once the
+     * surrounding transaction commits.
+     */
+    private void syncWorkQueue(MaintenanceLog log) {
+        syncWorkQueue(log.getId(), log.getStatus(), log.getMachine().getId(),
+                log.getTechnician() != null ? log.getTechnician().getId() : null, log.getLogDate());
+    }
+
+    private void syncWorkQueue(Long logId, MaintenanceStatus status, Long machineId, Long technicianId, LocalDate logDate) {
+        if (status != MaintenanceStatus.PENDING) {
+            workQueue.removeAfterCommit(List.of(logId));
+            return;
+        }
+        workQueue.putAfterCommit(new TechnicianWorkQueue.Job(logId, machineId, technicianId,
+                machineRegistry.findById(machineId).map(MachineRegistryCache.Entry::criticalityLevel).orElse(null),
+                logDate));
     }
 
     // --- Helper methods for DTO to Entity mapping ---
@@ -184,7 +536,7 @@ public class MaintenanceLogService {
         return log;
     }
 
-    private MaintenanceLogResponseDTO mapEntityToResponseDto(MaintenanceLog log) {
+    MaintenanceLogResponseDTO mapEntityToResponseDto(MaintenanceLog log) {
         MaintenanceLogResponseDTO dto = new MaintenanceLogResponseDTO();
         dto.setId(log.getId());
         dto.setLogDate(log.getLogDate());
@@ -193,25 +545,47 @@ public class MaintenanceLogService {
         dto.setCost(log.getCost());
         dto.setMachineId(log.getMachine() != null ? log.getMachine().getId() : null);
         dto.setStatus(log.getStatus() != null ? log.getStatus().name() : null); // Convert enum to String
+        dto.setTechnicianId(log.getTechnician() != null ? log.getTechnician().getId() : null);
+        dto.setVersion(log.getVersion());
+        return dto;
+    }
+
+    MaintenanceLogResponseDTO mapViewToResponseDto(MaintenanceLogRepository.LogView log) {
+        MaintenanceLogResponseDTO dto = new MaintenanceLogResponseDTO();
+        dto.setId(log.id());
+        dto.setLogDate(log.logDate());
+        dto.setDescription(log.description());
+        dto.setPerformedBy(log.performedBy());
+        dto.setCost(log.cost());
+        dto.setMachineId(log.machineId());
+        dto.setStatus(log.status() != null ? log.status().name() : null);
+        dto.setTechnicianId(log.technicianId());
+        dto.setVersion(log.version());
         return dto;
     }
 
     // --- Business Logic for Status Transitions ---
     private boolean isValidTransition(MaintenanceStatus oldStatus, MaintenanceStatus newStatus) {
-        if (oldStatus == newStatus) {
-            return true; // No change is always valid
-        }
-
-        switch (oldStatus) {
-            case PENDING:
-                return newStatus == MaintenanceStatus.IN_PROGRESS || newStatus == MaintenanceStatus.CANCELED;
-            case IN_PROGRESS:
-                return newStatus == MaintenanceStatus.COMPLETED || newStatus == MaintenanceStatus.CANCELED;
-            case COMPLETED:
-            case CANCELED:
-                return false; // Cannot transition from COMPLETED or CANCELED to any other state
-            default:
-                return false; // Should not happen
+        return MaintenanceStatusTransitions.isValid(oldStatus, newStatus);
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += BATCH_CHUNK_SIZE) {
+            chunks.add(ids.subList(start, Math.min(start + BATCH_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private MaintenanceStatus parseOptionalStatus(String statusString) {
+        return statusString == null || statusString.isBlank() ? null : parseStatus(statusString);
+    }
+
+    MaintenanceStatus parseStatus(String statusString) {
+        try {
+            return MaintenanceStatus.valueOf(statusString.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidStatusTransitionException("Invalid status value: " + statusString + ". Must be one of PENDING, IN_PROGRESS, COMPLETED, CANCELED.");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.cropmaint.service;
+
+import com.cropmaint.model.MaintenanceStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transition table for maintenance log statuses, precomputed in both directions.
+ * Successors answer "may this log move to X?" in Java; predecessors feed the
+ * {@code status IN (...)} guard of conditional UPDATE statements.
+ *
+ * PENDING -> IN_PROGRESS | CANCELED
+ * IN_PROGRESS -> COMPLETED | CANCELED
+ * COMPLETED and CANCELED are terminal. Keeping the current status is always allowed.
+ */
+public final class MaintenanceStatusTransitions {
+
+    private static final Map<MaintenanceStatus, Set<MaintenanceStatus>> SUCCESSORS = new EnumMap<>(MaintenanceStatus.class);
+    private static final Map<MaintenanceStatus, Set<MaintenanceStatus>> PREDECESSORS = new EnumMap<>(MaintenanceStatus.class);
+
+    static {
+        allow(MaintenanceStatus.PENDING, MaintenanceStatus.IN_PROGRESS, MaintenanceStatus.CANCELED);
+        allow(MaintenanceStatus.IN_PROGRESS, MaintenanceStatus.COMPLETED, MaintenanceStatus.CANCELED);
+        allow(MaintenanceStatus.COMPLETED);
+        allow(MaintenanceStatus.CANCELED);
+
+        for (MaintenanceStatus status : MaintenanceStatus.values()) {
+            PREDECESSORS.put(status, EnumSet.noneOf(MaintenanceStatus.class));
+        }
+        SUCCESSORS.forEach((from, targets) -> targets.forEach(to -> PREDECESSORS.get(to).add(from)));
+        PREDECESSORS.replaceAll((status, from) -> Collections.unmodifiableSet(from));
+    }
+
+    private MaintenanceStatusTransitions() {
+    }
+
+    private static void allow(MaintenanceStatus from, MaintenanceStatus... to) {
+        Set<MaintenanceStatus> targets = EnumSet.of(from, to);
+        SUCCESSORS.put(from, Collections.unmodifiableSet(targets));
+    }
+
+    public static boolean isValid(MaintenanceStatus oldStatus, MaintenanceStatus newStatus) {
+        if (oldStatus == null || newStatus == null) {
+            return false;
+        }
+        return SUCCESSORS.get(oldStatus).contains(newStatus);
+    }
+
+    /**
+     * @return Every status a log may currently have for a move to {@code target} to be legal,
+     * including {@code target} itself.
+     */
+    public static Set<MaintenanceStatus> allowedPredecessors(MaintenanceStatus target) {
+        return PREDECESSORS.get(target);
+    }
+}
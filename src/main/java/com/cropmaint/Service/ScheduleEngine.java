@@ -0,0 +1,190 @@
+package com.cropmaint.service;
+
+import com.cropmaint.dto.ScheduleRolloverResultDTO;
+import com.cropmaint.repository.ScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Turns due schedules into PENDING maintenance logs.
+ *
+ * Active schedules are held in memory as a priority queue of (due date, schedule id), so each tick
+ * only looks at the head of the queue instead of querying the schedule table. Due schedules are handed
+ * to {@link ScheduleRolloverService} in chunks, which locks them, moves {@code maintenanceDueDate}
+ * forward and inserts the logs in one transaction, so every occurrence produces exactly one log even
+ * if several instances run or the engine restarts halfway. The database stays the source of truth:
+ * the queue is rebuilt from it on startup and on every resync, which also picks up schedules edited elsewhere.
+ */
+@Service
+public class ScheduleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleEngine.class);
+
+    private record QueueEntry(LocalDate dueDate, Long scheduleId) {
+    }
+
+    private static final Comparator<QueueEntry> BY_DUE_DATE =
+            Comparator.comparing(QueueEntry::dueDate).thenComparing(QueueEntry::scheduleId);
+
+    private final ScheduleRepository scheduleRepository;
+    private final ScheduleRolloverService rolloverService;
+
+    // Guarded by this. dueDates holds the live due date per schedule; queue entries that no longer
+    // match it are stale and skipped when they reach the head.
+    private final PriorityQueue<QueueEntry> queue = new PriorityQueue<>(BY_DUE_DATE);
+    private final Map<Long, LocalDate> dueDates = new HashMap<>();
+    private boolean loaded;
+
+    public ScheduleEngine(ScheduleRepository scheduleRepository, ScheduleRolloverService rolloverService) {
+        this.scheduleRepository = scheduleRepository;
+        this.rolloverService = rolloverService;
+    }
+
+    /**
+     * Rebuilds the queue from the active schedules in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${cropmaint.schedule-engine.resync-interval:PT15M}",
+            initialDelayString = "${cropmaint.schedule-engine.resync-interval:PT15M}")
+    public void reload() {
+        List<ScheduleRepository.DueDateView> rows = scheduleRepository.findActiveDueDates();
+        synchronized (this) {
+            queue.clear();
+            dueDates.clear();
+            for (ScheduleRepository.DueDateView row : rows) {
+                enqueue(row.getId(), row.getDueDate());
+            }
+            loaded = true;
+        }
+        logger.info("Schedule engine tracking {} active schedule(s)", rows.size());
+    }
+
+    /**
+     * Starts tracking a schedule, or moves it to a new due date.
+     */
+    public synchronized void track(Long scheduleId, LocalDate dueDate) {
+        enqueue(scheduleId, dueDate);
+    }
+
+    /**
+     * Stops tracking a schedule that was deactivated or deleted.
+     */
+    public synchronized void untrack(Long scheduleId) {
+        dueDates.remove(scheduleId);
+    }
+
+    public synchronized int size() {
+        return dueDates.size();
+    }
+
+    /**
+     * @return The earliest due date in the queue, or null if nothing is tracked.
+     */
+    public synchronized LocalDate nextDueDate() {
+        discardStaleHead();
+        return queue.isEmpty() ? null : queue.peek().dueDate();
+    }
+
+    @Scheduled(fixedDelayString = "${cropmaint.schedule-engine.tick-interval:PT1M}")
+    public void tick() {
+        fireDue(LocalDate.now());
+    }
+
+    /**
+     * Fires every schedule due on or before {@code today}, a rollover chunk at a time.
+     * A schedule that missed several periods gets one log and moves to its first occurrence after today.
+     * @return The number of maintenance logs created.
+     */
+    public int fireDue(LocalDate today) {
+        int fired = 0;
+        while (true) {
+            List<QueueEntry> due = pollDue(today, rolloverService.getChunkSize());
+            if (due.isEmpty()) {
+                break;
+            }
+            Map<Long, LocalDate> rolled;
+            try {
+                rolled = rolloverService.rollOver(due.stream().map(QueueEntry::scheduleId).toList(), today);
+            } catch (DataAccessException | TransactionException e) {
+                logger.warn("Could not fire {} due schedule(s); retrying next tick", due.size(), e);
+                due.forEach(entry -> track(entry.scheduleId(), entry.dueDate()));
+                break;
+            }
+            fired += rolled.size();
+            trackAll(rolled);
+            due.stream()
+                    .map(QueueEntry::scheduleId)
+                    .filter(id -> !rolled.containsKey(id))
+                    .forEach(this::resync);
+        }
+        if (fired > 0) {
+            logger.info("Schedule engine created {} maintenance log(s)", fired);
+        }
+        return fired;
+    }
+
+    /**
+     * Rolls every overdue schedule in the database forward, including ones the queue does not know
+     * about yet, such as schedules re-activated by SQL after a pause.
+     */
+    public ScheduleRolloverResultDTO catchUp(LocalDate asOf) {
+        return rolloverService.rollOverOverdue(asOf, this::trackAll);
+    }
+
+    /**
+     * Re-reads one schedule after a lost race or an edit made outside the engine.
+     */
+    private void resync(Long scheduleId) {
+        scheduleRepository.findActiveOccurrenceById(scheduleId)
+                .filter(schedule -> ScheduleRecurrence.isValid(schedule.getFrequencyDays()))
+                .ifPresentOrElse(schedule -> track(scheduleId, schedule.getDueDate()), () -> untrack(scheduleId));
+    }
+
+    private synchronized void trackAll(Map<Long, LocalDate> scheduleDueDates) {
+        scheduleDueDates.forEach(this::enqueue);
+    }
+
+    private synchronized List<QueueEntry> pollDue(LocalDate today, int max) {
+        List<QueueEntry> due = new ArrayList<>();
+        if (!loaded) {
+            return due;
+        }
+        discardStaleHead();
+        while (due.size() < max && !queue.isEmpty() && !queue.peek().dueDate().isAfter(today)) {
+            QueueEntry entry = queue.poll();
+            dueDates.remove(entry.scheduleId());
+            due.add(entry);
+            discardStaleHead();
+        }
+        return due;
+    }
+
+    private void enqueue(Long scheduleId, LocalDate dueDate) {
+        if (scheduleId == null || dueDate == null) {
+            return;
+        }
+        if (!dueDate.equals(dueDates.put(scheduleId, dueDate))) {
+            queue.add(new QueueEntry(dueDate, scheduleId));
+        }
+    }
+
+    private void discardStaleHead() {
+        while (!queue.isEmpty() && !queue.peek().dueDate().equals(dueDates.get(queue.peek().scheduleId()))) {
+            queue.poll();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.cropmaint.service;
+
+import com.cropmaint.dto.ScheduleOccurrenceDTO;
+import com.cropmaint.dto.ScheduleOccurrenceFilterDTO;
+import com.cropmaint.exception.BadRequestException;
+import com.cropmaint.repository.ScheduleRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Expands recurring schedules into their occurrences over a date window for the maintenance calendar.
+ *
+ * Occurrences are produced lazily by a k-way merge: every matching schedule contributes one cursor
+ * holding its next occurrence, and a priority queue keyed on that date always yields the earliest one.
+ * Memory is one cursor per schedule, however many occurrences the window contains.
+ */
+@Service
+public class ScheduleOccurrenceService {
+
+    public static final int MAX_WINDOW_MONTHS = 24;
+
+    private final ScheduleRepository scheduleRepository;
+
+    public ScheduleOccurrenceService(ScheduleRepository scheduleRepository) {
+        this.scheduleRepository = scheduleRepository;
+    }
+
+    /**
+     * Loads the matching active schedules and returns an iterator over their occurrences in
+     * [from, to], ordered by date and then schedule ID.
+     * @throws BadRequestException if the window is inverted or longer than MAX_WINDOW_MONTHS.
+     */
+    @Transactional(readOnly = true)
+    public Iterator<ScheduleOccurrenceDTO> expand(ScheduleOccurrenceFilterDTO filter) {
+        LocalDate from = filter.getFrom();
+        LocalDate to = filter.getTo();
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to.");
+        }
+        if (to.isAfter(from.plusMonths(MAX_WINDOW_MONTHS))) {
+            throw new BadRequestException("The window may span at most " + MAX_WINDOW_MONTHS + " months.");
+        }
+
+        PriorityQueue<ScheduleCursor> cursors = new PriorityQueue<>(ScheduleCursor.BY_NEXT_DATE);
+        for (ScheduleRepository.CalendarView schedule : scheduleRepository.findActiveForCalendar(
+                to, filter.getMachineId(), filter.getTechnicianId(), blankToNull(filter.getLocation()))) {
+            ScheduleCursor cursor = ScheduleCursor.start(schedule, from, to);
+            if (cursor != null) {
+                cursors.add(cursor);
+            }
+        }
+        return new OccurrenceIterator(cursors, to);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * One schedule's position in the merge. Schedules without a usable frequency occur once, on their due date.
+     */
+    private static final class ScheduleCursor {
+
+        static final Comparator<ScheduleCursor> BY_NEXT_DATE =
+                Comparator.comparing((ScheduleCursor cursor) -> cursor.next).thenComparing(cursor -> cursor.schedule.getId());
+
+        final ScheduleRepository.CalendarView schedule;
+        final boolean recurring;
+        LocalDate next;
+
+        private ScheduleCursor(ScheduleRepository.CalendarView schedule, LocalDate next) {
+            this.schedule = schedule;
+            this.recurring = ScheduleRecurrence.isValid(schedule.getFrequencyDays());
+            this.next = next;
+        }
+
+        static ScheduleCursor start(ScheduleRepository.CalendarView schedule, LocalDate from, LocalDate to) {
+            // Occurrences before the due date have already been rolled past.
+            LocalDate first = ScheduleRecurrence.isValid(schedule.getFrequencyDays())
+                    ? ScheduleRecurrence.firstOnOrAfter(schedule.getSeriesStart(), schedule.getFrequencyDays(), schedule.getFrequencyType(),
+                            from.isAfter(schedule.getDueDate()) ? from : schedule.getDueDate())
+                    : schedule.getDueDate();
+            return first.isBefore(from) || first.isAfter(to) ? null : new ScheduleCursor(schedule, first);
+        }
+
+        ScheduleOccurrenceDTO current() {
+            return new ScheduleOccurrenceDTO(next, schedule.getId(), schedule.getDescription(),
+                    schedule.getMachineId(), schedule.getLocation(), schedule.getTechnicianId());
+        }
+
+        /**
+         * @return false once the schedule has no further occurrence.
+         */
+        boolean advance() {
+            if (!recurring) {
+                return false;
+            }
+            next = ScheduleRecurrence.nextAfter(schedule.getSeriesStart(), schedule.getFrequencyDays(), schedule.getFrequencyType(), next);
+            return true;
+        }
+    }
+
+    private static final class OccurrenceIterator implements Iterator<ScheduleOccurrenceDTO> {
+
+        private final PriorityQueue<ScheduleCursor> cursors;
+        private final LocalDate to;
+
+        OccurrenceIterator(PriorityQueue<ScheduleCursor> cursors, LocalDate to) {
+            this.cursors = cursors;
+            this.to = to;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cursors.isEmpty();
+        }
+
+        @Override
+        public ScheduleOccurrenceDTO next() {
+            ScheduleCursor cursor = cursors.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            ScheduleOccurrenceDTO occurrence = cursor.current();
+            if (cursor.advance() && !cursor.next.isAfter(to)) {
+                cursors.add(cursor);
+            }
+            return occurrence;
+        }
+    }
+}
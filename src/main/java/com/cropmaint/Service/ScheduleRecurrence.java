@@ -0,0 +1,59 @@
+package com.cropmaint.service;
+
+import com.cropmaint.enums.FrequencyType;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Date arithmetic for recurring schedules.
+ * {@code frequencyDays} is the interval length counted in {@code frequencyType} units
+ * (every 2 WEEKS, every 3 MONTHS, ...); schedules without a type recur in days.
+ * Occurrences are always counted from the series start, never from the latest due date, so a
+ * schedule started on the 31st falls on the last day of shorter months and returns to the 31st after.
+ */
+public final class ScheduleRecurrence {
+
+    private ScheduleRecurrence() {
+    }
+
+    public static boolean isValid(Integer frequency) {
+        return frequency != null && frequency > 0;
+    }
+
+    /**
+     * @return The first occurrence of the series starting at {@code seriesStart} that falls after {@code asOf}.
+     * Computed directly from the number of elapsed periods, so a schedule that is years overdue costs the same as one a day late.
+     * @throws IllegalArgumentException if the frequency is missing or not positive.
+     */
+    public static LocalDate nextAfter(LocalDate seriesStart, Integer frequency, FrequencyType type, LocalDate asOf) {
+        if (!isValid(frequency)) {
+            throw new IllegalArgumentException("Schedule frequency must be a positive number, got " + frequency);
+        }
+        ChronoUnit unit = unitOf(type);
+        long periods = asOf.isBefore(seriesStart) ? 0 : unit.between(seriesStart, asOf) / frequency;
+        LocalDate candidate = seriesStart.plus(periods * frequency, unit);
+        while (!candidate.isAfter(asOf)) {
+            periods++;
+            candidate = seriesStart.plus(periods * frequency, unit);
+        }
+        return candidate;
+    }
+
+    /**
+     * @return The first occurrence of the series starting at {@code seriesStart} on or after {@code date}.
+     * @throws IllegalArgumentException if the frequency is missing or not positive.
+     */
+    public static LocalDate firstOnOrAfter(LocalDate seriesStart, Integer frequency, FrequencyType type, LocalDate date) {
+        return seriesStart.isBefore(date) ? nextAfter(seriesStart, frequency, type, date.minusDays(1)) : seriesStart;
+    }
+
+    private static ChronoUnit unitOf(FrequencyType type) {
+        return switch (type != null ? type : FrequencyType.DAYS) {
+            case DAYS -> ChronoUnit.DAYS;
+            case WEEKS -> ChronoUnit.WEEKS;
+            case MONTHS -> ChronoUnit.MONTHS;
+            case YEARS -> ChronoUnit.YEARS;
+        };
+    }
+}
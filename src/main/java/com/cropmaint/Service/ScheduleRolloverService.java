@@ -0,0 +1,180 @@
+package com.cropmaint.service;
+
+import com.cropmaint.cache.TechnicianWorkQueue;
+import com.cropmaint.dto.ScheduleRolloverResultDTO;
+import com.cropmaint.model.MaintenanceStatus;
+import com.cropmaint.repository.MaintenanceLogRepository;
+import com.cropmaint.repository.ScheduleRepository;
+import com.cropmaint.sync.SyncSequence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Moves overdue schedules to their next occurrence after a given date, a chunk at a time.
+ *
+ * Each chunk runs in its own transaction: the overdue rows are locked with one SELECT ... FOR UPDATE,
+ * the next due dates are computed in Java, and the schedule updates and PENDING log inserts are sent
+ * as two JDBC batches. An overdue schedule gets one log for the occurrence it was due on, however many
+ * periods it missed. A run interrupted half way can simply be started again: committed chunks are no
+ * longer overdue, and a schedule changed or rolled by someone else since it was listed is skipped.
+ */
+@Service
+public class ScheduleRolloverService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleRolloverService.class);
+
+    private static final String ADVANCE_DUE_DATE_SQL =
+            "update schedule set series_start = coalesce(series_start, maintenance_due_date), maintenance_due_date = ?, "
+                    + "version = version + 1, change_seq = ? where id = ?";
+    private static final String INSERT_PENDING_LOG_SQL =
+            "insert into maintenance_logs (log_date, description, machine_id, technician_id, status, change_seq) values (?, ?, ?, ?, ?, ?)";
+
+    private final ScheduleRepository scheduleRepository;
+    private final MaintenanceLogRepository maintenanceLogRepository;
+    private final TechnicianWorkQueue workQueue;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SyncSequence syncSequence;
+    private final int chunkSize;
+
+    public ScheduleRolloverService(ScheduleRepository scheduleRepository,
+                                   MaintenanceLogRepository maintenanceLogRepository,
+                                   TechnicianWorkQueue workQueue,
+                                   JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   SyncSequence syncSequence,
+                                   @Value("${cropmaint.schedule-rollover.chunk-size:500}") int chunkSize) {
+        this.scheduleRepository = scheduleRepository;
+        this.maintenanceLogRepository = maintenanceLogRepository;
+        this.workQueue = workQueue;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.syncSequence = syncSequence;
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Rolls every active schedule due on or before {@code asOf}, walking them in (due date, id) order.
+     * @param onChunk Receives the new due date of each schedule rolled by a chunk, after it commits.
+     */
+    public ScheduleRolloverResultDTO rollOverOverdue(LocalDate asOf, Consumer<Map<Long, LocalDate>> onChunk) {
+        ScheduleRolloverResultDTO result = new ScheduleRolloverResultDTO();
+        result.setAsOf(asOf);
+        LocalDate afterDueDate = null;
+        Long afterId = 0L;
+        while (true) {
+            List<ScheduleRepository.DueDateView> page =
+                    scheduleRepository.findOverdueAfter(asOf, afterDueDate, afterId, Limit.of(chunkSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            ScheduleRepository.DueDateView last = page.get(page.size() - 1);
+            afterDueDate = last.getDueDate();
+            afterId = last.getId();
+
+            Map<Long, LocalDate> rolled = rollOver(page.stream().map(ScheduleRepository.DueDateView::getId).toList(), asOf);
+            result.setChunks(result.getChunks() + 1);
+            result.setRolledSchedules(result.getRolledSchedules() + rolled.size());
+            result.setCreatedLogs(result.getCreatedLogs() + rolled.size());
+            result.setSkippedSchedules(result.getSkippedSchedules() + page.size() - rolled.size());
+            onChunk.accept(rolled);
+        }
+        if (result.getRolledSchedules() > 0) {
+            logger.info("Rolled {} overdue schedule(s) forward as of {} in {} chunk(s)",
+                    result.getRolledSchedules(), asOf, result.getChunks());
+        }
+        return result;
+    }
+
+    /**
+     * Rolls the given schedules forward in one transaction, creating one PENDING log each.
+     * Schedules that are inactive, no longer overdue or have no usable frequency are left alone.
+     * The new logs join the technician work queue once the transaction commits.
+     * @return The new due date of every schedule that was rolled.
+     */
+    public Map<Long, LocalDate> rollOver(Collection<Long> scheduleIds, LocalDate asOf) {
+        if (scheduleIds.isEmpty()) {
+            return Map.of();
+        }
+        return transactionTemplate.execute(status -> {
+            long changeSeq = syncSequence.current();
+            Map<Long, LocalDate> rolled = new LinkedHashMap<>();
+            List<Object[]> scheduleUpdates = new ArrayList<>();
+            List<ScheduleRepository.OccurrenceView> occurrences = new ArrayList<>();
+            for (ScheduleRepository.OccurrenceView schedule : scheduleRepository.lockOverdueByIdIn(scheduleIds, asOf)) {
+                if (!ScheduleRecurrence.isValid(schedule.getFrequencyDays())) {
+                    logger.warn("Schedule {} has frequency {}; it will not recur", schedule.getId(), schedule.getFrequencyDays());
+                    continue;
+                }
+                LocalDate nextDueDate = ScheduleRecurrence.nextAfter(
+                        schedule.getSeriesStart(), schedule.getFrequencyDays(), schedule.getFrequencyType(), asOf);
+                rolled.put(schedule.getId(), nextDueDate);
+                scheduleUpdates.add(new Object[]{Date.valueOf(nextDueDate), changeSeq, schedule.getId()});
+                occurrences.add(schedule);
+            }
+            if (!rolled.isEmpty()) {
+                jdbcTemplate.batchUpdate(ADVANCE_DUE_DATE_SQL, scheduleUpdates);
+                List<Long> logIds = insertPendingLogs(occurrences, changeSeq);
+                maintenanceLogRepository.findWorkQueueJobsByIdIn(logIds, MaintenanceStatus.PENDING)
+                        .forEach(job -> workQueue.putAfterCommit(TechnicianWorkQueue.Job.of(job)));
+            }
+            return rolled;
+        });
+    }
+
+    /**
+     * Inserts one PENDING log per occurrence as a single JDBC batch.
+     * @return The generated log ids.
+     */
+    private List<Long> insertPendingLogs(List<ScheduleRepository.OccurrenceView> occurrences, long changeSeq) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_PENDING_LOG_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ScheduleRepository.OccurrenceView schedule = occurrences.get(i);
+                        ps.setDate(1, Date.valueOf(schedule.getDueDate()));
+                        ps.setString(2, schedule.getDescription());
+                        ps.setLong(3, schedule.getMachineId());
+                        ps.setObject(4, schedule.getTechnicianId(), Types.BIGINT);
+                        ps.setString(5, MaintenanceStatus.PENDING.name());
+                        ps.setLong(6, changeSeq);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return occurrences.size();
+                    }
+                },
+                keys);
+        return keys.getKeyList().stream()
+                .map(row -> ((Number) row.values().iterator().next()).longValue())
+                .toList();
+    }
+}
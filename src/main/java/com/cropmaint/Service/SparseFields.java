@@ -0,0 +1,44 @@
+package com.cropmaint.service;
+
+import com.cropmaint.exception.BadRequestException;
+import com.cropmaint.repository.SparseFieldRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Parses the fields= query parameter of the list endpoints.
+ */
+public final class SparseFields {
+
+    private SparseFields() {
+    }
+
+    /**
+     * @param fields Comma-separated field names, e.g. "id,machineCode,status".
+     * @return The names in request order, duplicates dropped.
+     * @throws BadRequestException if no field is named or a name is not a field of the projection.
+     */
+    public static List<String> parse(String fields, SparseFieldRepository.Projection projection) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!projection.fields().contains(trimmed)) {
+                throw new BadRequestException("Unknown field '" + trimmed + "'. Available fields: "
+                        + String.join(", ", new TreeSet<>(projection.fields())));
+            }
+            names.add(trimmed);
+        }
+        if (names.isEmpty()) {
+            throw new BadRequestException("fields must name at least one of: "
+                    + String.join(", ", new TreeSet<>(projection.fields())));
+        }
+        return new ArrayList<>(names);
+    }
+}
@@ -0,0 +1,211 @@
+package com.cropmaint.service;
+
+import com.cropmaint.Service.MachineService;
+import com.cropmaint.dto.MaintenanceLogResponseDTO;
+import com.cropmaint.dto.ScheduleResponseDTO;
+import com.cropmaint.dto.SyncChangesDTO;
+import com.cropmaint.dto.SyncLogBatchRequestDTO;
+import com.cropmaint.dto.SyncLogBatchResultDTO;
+import com.cropmaint.exception.BadRequestException;
+import com.cropmaint.exception.InvalidStatusTransitionException;
+import com.cropmaint.exception.ResourceNotFoundException;
+import com.cropmaint.exception.VersionConflictException;
+import com.cropmaint.repository.ScheduleRepository;
+import com.cropmaint.repository.TombstoneRepository;
+import com.cropmaint.sync.SyncSequence;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for field devices that work offline.
+ *
+ * Reads: a device keeps the token from its last sync and gets back only the machines, logs and
+ * schedules written since, plus the ids of those deleted, so the cost follows the size of the change
+ * rather than of the fleet. Without a token, or with one older than the tombstone retention, it gets
+ * every row and replaces its copy.
+ *
+ * Writes: logs created or edited offline are uploaded as a batch and applied one by one, each in its
+ * own transaction. Creates carry a client reference, so re-sending a batch after a lost response does
+ * not duplicate them; edits carry the version they were made against and are refused when the log
+ * has changed since, returning the server's copy for the device to merge.
+ */
+@Service
+public class SyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncService.class);
+
+    private final SyncSequence syncSequence;
+    private final MachineService machineService;
+    private final MaintenanceLogService maintenanceLogService;
+    private final ScheduleRepository scheduleRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final Validator validator;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration tombstoneRetention;
+
+    public SyncService(SyncSequence syncSequence,
+                       MachineService machineService,
+                       MaintenanceLogService maintenanceLogService,
+                       ScheduleRepository scheduleRepository,
+                       TombstoneRepository tombstoneRepository,
+                       Validator validator,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${cropmaint.sync.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.syncSequence = syncSequence;
+        this.machineService = machineService;
+        this.maintenanceLogService = maintenanceLogService;
+        this.scheduleRepository = scheduleRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.validator = validator;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * @param token The token returned by the previous sync, or null for a full sync.
+     * @throws BadRequestException if the token was not issued by this endpoint.
+     */
+    public SyncChangesDTO getChanges(String token) {
+        // Taken before reading: every change up to the watermark is committed, so the queries below see all of it.
+        // Not inside the read transaction, since making the watermark durable may write.
+        long upTo = syncSequence.issueWatermark();
+        Instant now = Instant.now();
+        SyncToken since = token != null && !token.isBlank() ? SyncToken.parse(token) : null;
+        // The checkpoint survives restarts, so a token ahead of the watermark means the database was restored; start over.
+        boolean reset = since == null || since.changeSeq() > upTo
+                || since.issuedAt().isBefore(now.minus(tombstoneRetention));
+        long after = reset ? -1 : since.changeSeq();
+
+        SyncChangesDTO changes = new SyncChangesDTO();
+        changes.setToken(new SyncToken(upTo, now).encode());
+        changes.setReset(reset);
+        if (after == upTo) {
+            return changes;
+        }
+        readOnlyTransaction.executeWithoutResult(status -> readChanges(changes, after, upTo, reset));
+        return changes;
+    }
+
+    private void readChanges(SyncChangesDTO changes, long after, long upTo, boolean reset) {
+        changes.setMachines(machineService.getMachinesChangedBetween(after, upTo));
+        changes.setLogs(maintenanceLogService.getLogsChangedBetween(after, upTo));
+        changes.setSchedules(scheduleRepository.findViewsChangedBetween(after, upTo).stream()
+                .map(SyncService::mapViewToResponseDto)
+                .collect(Collectors.toList()));
+        if (!reset) {
+            changes.setDeletions(tombstoneRepository.findViewsChangedBetween(after, upTo).stream()
+                    .map(tombstone -> new SyncChangesDTO.Deletion(tombstone.entityType().name(), tombstone.entityId()))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Applies offline log writes in order. A write that fails does not stop the ones after it.
+     * @return The outcome of every write, in request order.
+     */
+    public SyncLogBatchResultDTO applyLogWrites(List<SyncLogBatchRequestDTO.Write> writes) {
+        SyncLogBatchResultDTO result = new SyncLogBatchResultDTO();
+        for (SyncLogBatchRequestDTO.Write write : writes) {
+            result.getResults().add(apply(write));
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${cropmaint.sync.tombstone-prune-interval:PT6H}",
+            initialDelayString = "${cropmaint.sync.tombstone-prune-interval:PT6H}")
+    @Transactional
+    public void pruneTombstones() {
+        int pruned = tombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minus(tombstoneRetention));
+        if (pruned > 0) {
+            logger.info("Pruned {} tombstone(s) older than {}", pruned, tombstoneRetention);
+        }
+    }
+
+    private SyncLogBatchResultDTO.WriteResult apply(SyncLogBatchRequestDTO.Write write) {
+        Set<ConstraintViolation<SyncLogBatchRequestDTO.Write>> violations = validator.validate(write);
+        if (!violations.isEmpty()) {
+            return result(write, write.getId(), SyncLogBatchResultDTO.Outcome.REJECTED, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")), null);
+        }
+        try {
+            return write.getId() == null ? create(write) : update(write);
+        } catch (ResourceNotFoundException e) {
+            return result(write, write.getId(), SyncLogBatchResultDTO.Outcome.NOT_FOUND, e.getMessage(), null);
+        } catch (BadRequestException | InvalidStatusTransitionException e) {
+            return result(write, write.getId(), SyncLogBatchResultDTO.Outcome.REJECTED, e.getMessage(), null);
+        }
+    }
+
+    private SyncLogBatchResultDTO.WriteResult create(SyncLogBatchRequestDTO.Write write) {
+        String clientRef = write.getClientRef();
+        if (clientRef == null || clientRef.isBlank()) {
+            throw new BadRequestException("Client reference is required to create a log.");
+        }
+        Optional<MaintenanceLogResponseDTO> existing = maintenanceLogService.findLogByClientRef(clientRef);
+        if (existing.isPresent()) {
+            return result(write, existing.get().getId(), SyncLogBatchResultDTO.Outcome.DUPLICATE, null, existing.get());
+        }
+        try {
+            MaintenanceLogResponseDTO created = maintenanceLogService.createLog(write.getLog(), clientRef);
+            return result(write, created.getId(), SyncLogBatchResultDTO.Outcome.CREATED, null, created);
+        } catch (DataIntegrityViolationException e) {
+            // Lost the unique client_ref to a concurrent upload of the same write.
+            MaintenanceLogResponseDTO winner = maintenanceLogService.findLogByClientRef(clientRef).orElseThrow(() -> e);
+            return result(write, winner.getId(), SyncLogBatchResultDTO.Outcome.DUPLICATE, null, winner);
+        }
+    }
+
+    private SyncLogBatchResultDTO.WriteResult update(SyncLogBatchRequestDTO.Write write) {
+        if (write.getBaseVersion() == null) {
+            throw new BadRequestException("Base version is required to edit a log.");
+        }
+        try {
+            MaintenanceLogResponseDTO updated = maintenanceLogService.updateLog(write.getId(), write.getLog(), write.getBaseVersion());
+            return result(write, updated.getId(), SyncLogBatchResultDTO.Outcome.UPDATED, null, updated);
+        } catch (VersionConflictException e) {
+            return result(write, write.getId(), SyncLogBatchResultDTO.Outcome.CONFLICT, e.getMessage(),
+                    maintenanceLogService.getLogById(write.getId()));
+        }
+    }
+
+    private static SyncLogBatchResultDTO.WriteResult result(SyncLogBatchRequestDTO.Write write, Long id,
+                                                            SyncLogBatchResultDTO.Outcome outcome, String message,
+                                                            MaintenanceLogResponseDTO log) {
+        return new SyncLogBatchResultDTO.WriteResult(write.getClientRef(), id, outcome, message, log);
+    }
+
+    private static ScheduleResponseDTO mapViewToResponseDto(ScheduleRepository.ScheduleView schedule) {
+        ScheduleResponseDTO dto = new ScheduleResponseDTO();
+        dto.setId(schedule.id());
+        dto.setDescription(schedule.description());
+        dto.setDueDate(schedule.dueDate());
+        dto.setFrequencyDays(schedule.frequencyDays());
+        dto.setFrequencyType(schedule.frequencyType() != null ? schedule.frequencyType().name() : null);
+        dto.setLastPerformedDate(schedule.lastPerformedDate());
+        dto.setActive(schedule.active());
+        dto.setMachineId(schedule.machineId());
+        dto.setTechnicianId(schedule.technicianId());
+        dto.setVersion(schedule.version());
+        return dto;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cropmaint.service;
+
+import com.cropmaint.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in the change feed handed to a device after each sync: the watermark it has seen and
+ * when it was issued. Opaque to clients, so the format can change without breaking them.
+ */
+record SyncToken(long changeSeq, Instant issuedAt) {
+
+    static SyncToken parse(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return new SyncToken(Long.parseLong(parts[0]), Instant.ofEpochSecond(Long.parseLong(parts[1])));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid sync token: " + token);
+        }
+    }
+
+    String encode() {
+        String value = changeSeq + ":" + issuedAt.getEpochSecond();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,169 @@
+package com.cropmaint.service;
+
+import com.cropmaint.cache.TechnicianWorkQueue;
+import com.cropmaint.dto.TechnicianAssignmentResultDTO;
+import com.cropmaint.enums.UserRole;
+import com.cropmaint.model.MaintenanceStatus;
+import com.cropmaint.repository.MaintenanceLogRepository;
+import com.cropmaint.repository.ScheduleRepository;
+import com.cropmaint.repository.UserRepository;
+import com.cropmaint.sync.SyncSequence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Balances unassigned pending logs and unassigned due schedules across technicians.
+ * The plan is computed in memory by {@link AssignmentSolver} and written back with two JDBC batches
+ * that only fill in a technician where none has been set in the meantime.
+ */
+@Service
+public class TechnicianAssignmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TechnicianAssignmentService.class);
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private static final String ASSIGN_LOG_SQL =
+            "update maintenance_logs set technician_id = ?, version = version + 1, change_seq = ? where id = ? and status = 'PENDING' and technician_id is null";
+    private static final String ASSIGN_SCHEDULE_SQL =
+            "update schedule set assigned_technician_id = ?, version = version + 1, change_seq = ? where id = ? and assigned_technician_id is null";
+
+    private final MaintenanceLogRepository maintenanceLogRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final UserRepository userRepository;
+    private final TechnicianWorkQueue workQueue;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SyncSequence syncSequence;
+    private final AssignmentSolver solver;
+
+    public TechnicianAssignmentService(MaintenanceLogRepository maintenanceLogRepository,
+                                       ScheduleRepository scheduleRepository,
+                                       UserRepository userRepository,
+                                       TechnicianWorkQueue workQueue,
+                                       JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       SyncSequence syncSequence,
+                                       @Value("${cropmaint.assignment.travel-penalty:3}") int travelPenalty) {
+        this.maintenanceLogRepository = maintenanceLogRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.userRepository = userRepository;
+        this.workQueue = workQueue;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.syncSequence = syncSequence;
+        this.solver = new AssignmentSolver(travelPenalty, ForkJoinPool.commonPool());
+    }
+
+    @Scheduled(cron = "${cropmaint.assignment.cron:-}")
+    public void assignDueWork() {
+        TechnicianAssignmentResultDTO result = assign(LocalDate.now(), false);
+        logger.info("Assigned {} log(s) and {} schedule(s) to {} technician(s) in {} ms",
+                result.getAssignedLogs(), result.getAssignedSchedules(), result.getTechnicians(), result.getSolveMillis());
+    }
+
+    /**
+     * Assigns every unassigned PENDING log and every unassigned active schedule due on or before {@code asOf}.
+     * @param dryRun Compute and return the plan without saving it.
+     */
+    public TechnicianAssignmentResultDTO assign(LocalDate asOf, boolean dryRun) {
+        List<AssignmentSolver.Job> jobs = new ArrayList<>();
+        for (MaintenanceLogRepository.AssignableJobView log : maintenanceLogRepository.findUnassignedJobsByStatus(MaintenanceStatus.PENDING)) {
+            jobs.add(toJob(AssignmentSolver.JobKind.LOG, log));
+        }
+        int candidateLogs = jobs.size();
+        for (MaintenanceLogRepository.AssignableJobView schedule : scheduleRepository.findUnassignedDue(asOf)) {
+            jobs.add(toJob(AssignmentSolver.JobKind.SCHEDULE, schedule));
+        }
+
+        TechnicianAssignmentResultDTO result = new TechnicianAssignmentResultDTO();
+        result.setAsOf(asOf);
+        result.setDryRun(dryRun);
+        result.setCandidateLogs(candidateLogs);
+        result.setCandidateSchedules(jobs.size() - candidateLogs);
+
+        long started = System.nanoTime();
+        AssignmentSolver.Plan plan = solver.solve(jobs, loadTechnicians());
+        result.setSolveMillis((System.nanoTime() - started) / 1_000_000);
+        result.setTechnicians(plan.loadByTechnician().size());
+        result.setLoadByTechnician(plan.loadByTechnician());
+        for (AssignmentSolver.Assignment assignment : plan.assignments()) {
+            result.getAssignments().add(new TechnicianAssignmentResultDTO.Assignment(
+                    assignment.job().kind().name(), assignment.job().id(), assignment.technicianId()));
+        }
+
+        if (!dryRun && !plan.assignments().isEmpty()) {
+            save(plan, result);
+        }
+        return result;
+    }
+
+    private List<AssignmentSolver.Technician> loadTechnicians() {
+        Map<Long, Map<String, Integer>> openJobs = new HashMap<>();
+        for (Long technicianId : userRepository.findIdsByRole(UserRole.TECHNICIAN.name())) {
+            openJobs.put(technicianId, new HashMap<>());
+        }
+        for (MaintenanceLogRepository.TechnicianLocationLoadView row : maintenanceLogRepository.countJobsByTechnicianAndLocation(
+                List.of(MaintenanceStatus.PENDING, MaintenanceStatus.IN_PROGRESS))) {
+            Map<String, Integer> byLocation = openJobs.get(row.getTechnicianId());
+            if (byLocation != null) {
+                byLocation.merge(row.getLocation(), row.getTotal().intValue(), Integer::sum);
+            }
+        }
+        List<AssignmentSolver.Technician> technicians = new ArrayList<>(openJobs.size());
+        openJobs.forEach((id, byLocation) -> technicians.add(new AssignmentSolver.Technician(id, byLocation)));
+        return technicians;
+    }
+
+    private void save(AssignmentSolver.Plan plan, TechnicianAssignmentResultDTO result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            long changeSeq = syncSequence.current();
+            List<Object[]> logUpdates = new ArrayList<>();
+            List<Long> logIds = new ArrayList<>();
+            List<Object[]> scheduleUpdates = new ArrayList<>();
+            for (AssignmentSolver.Assignment assignment : plan.assignments()) {
+                Object[] args = {assignment.technicianId(), changeSeq, assignment.job().id()};
+                if (assignment.job().kind() == AssignmentSolver.JobKind.LOG) {
+                    logUpdates.add(args);
+                    logIds.add(assignment.job().id());
+                } else {
+                    scheduleUpdates.add(args);
+                }
+            }
+            result.setAssignedLogs(countUpdated(jdbcTemplate.batchUpdate(ASSIGN_LOG_SQL, logUpdates)));
+            result.setAssignedSchedules(countUpdated(jdbcTemplate.batchUpdate(ASSIGN_SCHEDULE_SQL, scheduleUpdates)));
+            // Re-read rather than trust the plan: a log claimed or assigned meanwhile was not updated.
+            for (int start = 0; start < logIds.size(); start += ID_CHUNK_SIZE) {
+                maintenanceLogRepository.findWorkQueueJobsByIdIn(
+                                logIds.subList(start, Math.min(start + ID_CHUNK_SIZE, logIds.size())), MaintenanceStatus.PENDING)
+                        .forEach(job -> workQueue.putAfterCommit(TechnicianWorkQueue.Job.of(job)));
+            }
+        });
+    }
+
+    private static int countUpdated(int[] counts) {
+        int updated = 0;
+        for (int count : counts) {
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    private static AssignmentSolver.Job toJob(AssignmentSolver.JobKind kind, MaintenanceLogRepository.AssignableJobView view) {
+        return new AssignmentSolver.Job(kind, view.getId(), view.getLocation(), view.getCriticalityLevel(), view.getDueDate());
+    }
+}
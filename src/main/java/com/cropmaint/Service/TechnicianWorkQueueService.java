@@ -0,0 +1,144 @@
+package com.cropmaint.service;
+
+import com.cropmaint.cache.TechnicianWorkQueue;
+import com.cropmaint.dto.MaintenanceLogResponseDTO;
+import com.cropmaint.dto.WorkQueueJobDTO;
+import com.cropmaint.entity.User;
+import com.cropmaint.enums.UserRole;
+import com.cropmaint.exception.BadRequestException;
+import com.cropmaint.exception.ResourceNotFoundException;
+import com.cropmaint.model.MaintenanceStatus;
+import com.cropmaint.repository.MaintenanceLogRepository;
+import com.cropmaint.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Next-job, claim and complete operations over the in-memory {@link TechnicianWorkQueue}.
+ * Due schedules reach the queue as the PENDING logs the schedule engine creates for them.
+ */
+@Service
+public class TechnicianWorkQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TechnicianWorkQueueService.class);
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+
+    private final TechnicianWorkQueue workQueue;
+    private final MaintenanceLogRepository maintenanceLogRepository;
+    private final MaintenanceLogService maintenanceLogService;
+    private final UserRepository userRepository;
+
+    public TechnicianWorkQueueService(TechnicianWorkQueue workQueue,
+                                      MaintenanceLogRepository maintenanceLogRepository,
+                                      MaintenanceLogService maintenanceLogService,
+                                      UserRepository userRepository) {
+        this.workQueue = workQueue;
+        this.maintenanceLogRepository = maintenanceLogRepository;
+        this.maintenanceLogService = maintenanceLogService;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * @return The job the technician should pick up next, answered from memory only.
+     */
+    public Optional<WorkQueueJobDTO> nextJob(Long technicianId) {
+        return workQueue.next(technicianId).map(TechnicianWorkQueueService::toDto);
+    }
+
+    /**
+     * Assigns the technician's next job to them and starts it. If another technician claims the same
+     * job first, the next one is tried.
+     * @return The claimed log, or empty if there is nothing left to claim.
+     * @throws ResourceNotFoundException if the user does not exist.
+     * @throws BadRequestException if the user is not a technician.
+     */
+    public Optional<MaintenanceLogResponseDTO> claimNext(Long technicianId) {
+        User technician = userRepository.findById(technicianId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + technicianId));
+        if (!UserRole.TECHNICIAN.name().equalsIgnoreCase(technician.getRole())) {
+            throw new BadRequestException("User " + technicianId + " is not a technician.");
+        }
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            Optional<TechnicianWorkQueue.Job> job = workQueue.next(technicianId);
+            if (job.isEmpty()) {
+                return Optional.empty();
+            }
+            Optional<MaintenanceLogResponseDTO> claimed = maintenanceLogService.claimLog(job.get().logId(), technicianId);
+            if (claimed.isPresent()) {
+                return claimed;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public MaintenanceLogResponseDTO complete(Long logId) {
+        return maintenanceLogService.updateLogStatus(logId, MaintenanceStatus.COMPLETED.name());
+    }
+
+    public TechnicianWorkQueue.Stats getStats() {
+        return workQueue.stats();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        List<TechnicianWorkQueue.Job> jobs = loadPendingJobs();
+        workQueue.replaceAll(jobs);
+        logger.info("Seeded technician work queue with {} pending job(s)", jobs.size());
+    }
+
+    /**
+     * Compares the queue with the PENDING logs in the database and corrects the jobs that differ,
+     * picking up logs written outside this service. Any difference is logged.
+     *
+     * Jobs keep being put and removed while the query runs, so the queue is read before and after it
+     * and a log whose job changed in between is left for the next run. The others are corrected one
+     * log at a time, and only if the job is still the one that was compared.
+     */
+    @Scheduled(fixedDelayString = "${cropmaint.work-queue.reconcile-interval:PT10M}",
+            initialDelayString = "${cropmaint.work-queue.reconcile-interval:PT10M}")
+    public void reconcile() {
+        Map<Long, TechnicianWorkQueue.Job> before = workQueue.snapshot();
+        Map<Long, TechnicianWorkQueue.Job> actual = loadPendingJobs().stream()
+                .collect(Collectors.toMap(TechnicianWorkQueue.Job::logId, Function.identity()));
+        Map<Long, TechnicianWorkQueue.Job> tracked = workQueue.snapshot();
+
+        Set<Long> logIds = new HashSet<>(actual.keySet());
+        logIds.addAll(tracked.keySet());
+        int driftingJobs = 0;
+        for (Long logId : logIds) {
+            TechnicianWorkQueue.Job trackedJob = tracked.get(logId);
+            TechnicianWorkQueue.Job actualJob = actual.get(logId);
+            if (!Objects.equals(trackedJob, actualJob) && Objects.equals(trackedJob, before.get(logId))
+                    && workQueue.replaceIf(logId, trackedJob, actualJob)) {
+                driftingJobs++;
+            }
+        }
+        if (driftingJobs > 0) {
+            logger.warn("Technician work queue drifted in {} job(s); corrected from database", driftingJobs);
+        }
+    }
+
+    private List<TechnicianWorkQueue.Job> loadPendingJobs() {
+        return maintenanceLogRepository.findWorkQueueJobsByStatus(MaintenanceStatus.PENDING).stream()
+                .map(TechnicianWorkQueue.Job::of)
+                .toList();
+    }
+
+    private static WorkQueueJobDTO toDto(TechnicianWorkQueue.Job job) {
+        return new WorkQueueJobDTO(job.logId(), job.machineId(), job.technicianId(),
+                job.criticalityLevel() != null ? job.criticalityLevel().name() : null, job.dueDate());
+    }
+}
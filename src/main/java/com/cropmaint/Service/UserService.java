@@ -3,12 +3,14 @@ package com.cropmaint.service;
 import com.cropmaint.dto.UserRequestDTO;
 import com.cropmaint.dto.UserResponseDTO;
 import com.cropmaint.entity.User;
+import com.cropmaint.repository.SparseFieldRepository;
 import com.cropmaint.repository.UserRepository;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -17,10 +19,13 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final SparseFieldRepository sparseFieldRepository;
 
-    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder,
+                       SparseFieldRepository sparseFieldRepository) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.sparseFieldRepository = sparseFieldRepository;
     }
 
     @Transactional
@@ -45,11 +50,17 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public List<UserResponseDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToDto)
+        return userRepository.findAllViews().stream()
+                .map(user -> new UserResponseDTO(user.id(), user.username(), user.email(), user.role()))
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllUsers(String fields) {
+        SparseFieldRepository.Projection projection = SparseFieldRepository.Projection.USER;
+        return sparseFieldRepository.findAll(projection, SparseFields.parse(fields, projection));
+    }
+
     @Transactional(readOnly = true)
     public Optional<UserResponseDTO> getUserById(Long id) {
         return userRepository.findById(id).map(this::convertToDto);
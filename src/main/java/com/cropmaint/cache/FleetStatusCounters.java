@@ -0,0 +1,73 @@
+package com.cropmaint.cache;
+
+import com.cropmaint.entity.Machine;
+import com.cropmaint.enums.CriticalityLevel;
+import com.cropmaint.enums.MachineStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory machine counts per (status, criticality, location) cell.
+ * Kept current by MachineService on every create, update and delete, and periodically
+ * corrected against the database's own counts by FleetSummaryService.
+ */
+@Component
+public class FleetStatusCounters {
+
+    public record Cell(MachineStatus status, CriticalityLevel criticalityLevel, String location) {
+
+        public static Cell of(Machine machine) {
+            return new Cell(machine.getStatus(), machine.getCriticalityLevel(), machine.getLocation());
+        }
+
+        public static Cell of(MachineRegistryCache.Entry entry) {
+            return new Cell(entry.status(), entry.criticalityLevel(), entry.location());
+        }
+    }
+
+    private volatile ConcurrentHashMap<Cell, LongAdder> counts = new ConcurrentHashMap<>();
+
+    public void increment(Cell cell) {
+        counts.computeIfAbsent(cell, key -> new LongAdder()).increment();
+    }
+
+    public void decrement(Cell cell) {
+        counts.computeIfAbsent(cell, key -> new LongAdder()).decrement();
+    }
+
+    public void add(Cell cell, long delta) {
+        counts.computeIfAbsent(cell, key -> new LongAdder()).add(delta);
+    }
+
+    public void move(Cell from, Cell to) {
+        if (!from.equals(to)) {
+            decrement(from);
+            increment(to);
+        }
+    }
+
+    public Map<Cell, Long> snapshot() {
+        Map<Cell, Long> copy = new HashMap<>();
+        counts.forEach((cell, count) -> {
+            long value = count.sum();
+            if (value != 0) {
+                copy.put(cell, value);
+            }
+        });
+        return copy;
+    }
+
+    public void replaceAll(Map<Cell, Long> freshCounts) {
+        ConcurrentHashMap<Cell, LongAdder> replacement = new ConcurrentHashMap<>();
+        freshCounts.forEach((cell, count) -> {
+            LongAdder adder = new LongAdder();
+            adder.add(count);
+            replacement.put(cell, adder);
+        });
+        counts = replacement;
+    }
+}
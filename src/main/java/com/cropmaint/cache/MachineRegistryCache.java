@@ -0,0 +1,182 @@
+package com.cropmaint.cache;
+
+import com.cropmaint.entity.Machine;
+import com.cropmaint.enums.CriticalityLevel;
+import com.cropmaint.enums.MachineStatus;
+import com.cropmaint.repository.MachineRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, write-through registry of machine identities, indexed by both id and machineCode.
+ * Entries are filled on read, replaced on save and invalidated on delete; the least recently
+ * used entry is evicted once maxSize is reached, and entries older than the TTL are reloaded.
+ * Only the small, rarely changing identity fields are kept, so existence checks and
+ * log-creation lookups can be answered without a query.
+ */
+@Component
+public class MachineRegistryCache {
+
+    public record Entry(Long id, String machineCode, String location,
+                        MachineStatus status, CriticalityLevel criticalityLevel) {
+
+        public static Entry of(Machine machine) {
+            return new Entry(machine.getId(), machine.getMachineCode(), machine.getLocation(),
+                    machine.getStatus(), machine.getCriticalityLevel());
+        }
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    private record Node(Entry entry, long loadedAtNanos) {
+    }
+
+    private final MachineRepository machineRepository;
+    private final long ttlNanos;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Everything below is guarded by "this"; repository loads happen outside the lock.
+    private final LinkedHashMap<Long, Node> byId;
+    private final Map<String, Long> idByCode = new HashMap<>();
+    // A load only fills the cache if its machine was not saved or evicted since the load began.
+    // Each save or evict takes the next generation; changedAt keeps the latest per id, bounded like
+    // byId, and prunedUpTo the highest generation dropped from it, which loads treat as a change.
+    private long generation;
+    private long prunedUpTo;
+    private final LinkedHashMap<Long, Long> changedAt;
+
+    public MachineRegistryCache(MachineRepository machineRepository,
+                                @Value("${cropmaint.machine-registry.max-size:10000}") int maxSize,
+                                @Value("${cropmaint.machine-registry.ttl:PT30M}") Duration ttl) {
+        this.machineRepository = machineRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Node> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                idByCode.remove(eldest.getValue().entry().machineCode());
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+        this.changedAt = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                prunedUpTo = Math.max(prunedUpTo, eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public Optional<Entry> findById(Long id) {
+        Entry cached = lookup(id);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        misses.incrementAndGet();
+        long loadGeneration = currentGeneration();
+        return machineRepository.findById(id).map(machine -> fill(machine, loadGeneration));
+    }
+
+    public Optional<Entry> findByMachineCode(String machineCode) {
+        Long id;
+        synchronized (this) {
+            id = idByCode.get(machineCode);
+        }
+        Entry cached = id != null ? lookup(id) : null;
+        if (cached != null && cached.machineCode().equals(machineCode)) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        misses.incrementAndGet();
+        long loadGeneration = currentGeneration();
+        return machineRepository.findByMachineCode(machineCode).map(machine -> fill(machine, loadGeneration));
+    }
+
+    public boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    public Entry put(Machine machine) {
+        Entry entry = Entry.of(machine);
+        synchronized (this) {
+            markChanged(entry.id());
+            store(entry);
+        }
+        return entry;
+    }
+
+    public synchronized void evict(Long id) {
+        markChanged(id);
+        Node removed = byId.remove(id);
+        if (removed != null) {
+            idByCode.remove(removed.entry().machineCode());
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), byId.size());
+    }
+
+    /**
+     * Caches a machine read by a load that began at {@code loadGeneration}, unless a save or evict
+     * of it happened since; the row read may then predate that write.
+     */
+    private Entry fill(Machine machine, long loadGeneration) {
+        Entry entry = Entry.of(machine);
+        synchronized (this) {
+            if (prunedUpTo <= loadGeneration && changedAt.getOrDefault(entry.id(), 0L) <= loadGeneration) {
+                store(entry);
+            }
+        }
+        return entry;
+    }
+
+    private void store(Entry entry) {
+        Node previous = byId.put(entry.id(), new Node(entry, System.nanoTime()));
+        if (previous != null && !previous.entry().machineCode().equals(entry.machineCode())) {
+            idByCode.remove(previous.entry().machineCode());
+        }
+        idByCode.put(entry.machineCode(), entry.id());
+    }
+
+    private void markChanged(Long id) {
+        changedAt.remove(id);
+        changedAt.put(id, ++generation);
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized Entry lookup(Long id) {
+        Node node = byId.get(id);
+        if (node == null) {
+            return null;
+        }
+        if (System.nanoTime() - node.loadedAtNanos() > ttlNanos) {
+            byId.remove(id);
+            idByCode.remove(node.entry().machineCode());
+            evictions.incrementAndGet();
+            return null;
+        }
+        return node.entry();
+    }
+}
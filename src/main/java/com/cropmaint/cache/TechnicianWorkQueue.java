@@ -0,0 +1,166 @@
+package com.cropmaint.cache;
+
+import com.cropmaint.enums.CriticalityLevel;
+import com.cropmaint.repository.MaintenanceLogRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Pending maintenance jobs, one priority-ordered set per technician plus a pool of unassigned jobs.
+ * Jobs are ordered by machine criticality (highest first), then due date, then log id, which stands in
+ * for age. Adding, removing and finding the next job are O(log n) and never touch the database.
+ *
+ * Writers inside a transaction should use the *AfterCommit methods so a rollback never leaves a
+ * job in (or out of) the queue that the database disagrees with.
+ */
+@Component
+public class TechnicianWorkQueue {
+
+    public record Job(Long logId, Long machineId, Long technicianId,
+                      CriticalityLevel criticalityLevel, LocalDate dueDate) {
+
+        public static Job of(MaintenanceLogRepository.WorkQueueJobView view) {
+            return new Job(view.getId(), view.getMachineId(), view.getTechnicianId(),
+                    view.getCriticalityLevel(), view.getLogDate());
+        }
+    }
+
+    public record Stats(int jobs, int unassigned, int technicians) {
+    }
+
+    public static final Comparator<Job> PRIORITY = Comparator
+            .comparing(Job::criticalityLevel, Comparator.nullsLast(Comparator.<CriticalityLevel>reverseOrder()))
+            .thenComparing(Job::dueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Job::logId);
+
+    // All three structures are guarded by "this".
+    private final Map<Long, NavigableSet<Job>> byTechnician = new HashMap<>();
+    private final NavigableSet<Job> unassigned = new TreeSet<>(PRIORITY);
+    private final Map<Long, Job> byLogId = new HashMap<>();
+
+    /**
+     * @return The highest priority job a technician can take: the head of their own queue or of the
+     * unassigned pool, whichever comes first.
+     */
+    public synchronized Optional<Job> next(Long technicianId) {
+        NavigableSet<Job> own = byTechnician.get(technicianId);
+        Job ownHead = own == null || own.isEmpty() ? null : own.first();
+        Job poolHead = unassigned.isEmpty() ? null : unassigned.first();
+        if (ownHead == null || poolHead == null) {
+            return Optional.ofNullable(ownHead != null ? ownHead : poolHead);
+        }
+        return Optional.of(PRIORITY.compare(ownHead, poolHead) <= 0 ? ownHead : poolHead);
+    }
+
+    public synchronized void put(Job job) {
+        remove(job.logId());
+        byLogId.put(job.logId(), job);
+        queueOf(job.technicianId(), true).add(job);
+    }
+
+    public synchronized void remove(Long logId) {
+        Job job = byLogId.remove(logId);
+        if (job == null) {
+            return;
+        }
+        NavigableSet<Job> queue = queueOf(job.technicianId(), false);
+        queue.remove(job);
+        if (queue.isEmpty() && job.technicianId() != null) {
+            byTechnician.remove(job.technicianId());
+        }
+    }
+
+    public void putAfterCommit(Job job) {
+        afterCommit(() -> put(job));
+    }
+
+    public void removeAfterCommit(Collection<Long> logIds) {
+        List<Long> ids = List.copyOf(logIds);
+        afterCommit(() -> ids.forEach(this::remove));
+    }
+
+    /**
+     * Re-ranks a machine's jobs after its criticality changed. Linear in the queue size; criticality
+     * changes are rare compared to queue reads.
+     */
+    public synchronized void updateCriticality(Long machineId, CriticalityLevel criticalityLevel) {
+        byLogId.values().stream()
+                .filter(job -> job.machineId().equals(machineId) && job.criticalityLevel() != criticalityLevel)
+                .toList()
+                .forEach(job -> put(new Job(job.logId(), job.machineId(), job.technicianId(), criticalityLevel, job.dueDate())));
+    }
+
+    public synchronized void removeMachine(Long machineId) {
+        byLogId.values().stream()
+                .filter(job -> job.machineId().equals(machineId))
+                .map(Job::logId)
+                .toList()
+                .forEach(this::remove);
+    }
+
+    public synchronized void replaceAll(Collection<Job> jobs) {
+        byTechnician.clear();
+        unassigned.clear();
+        byLogId.clear();
+        jobs.forEach(this::put);
+    }
+
+    /**
+     * Sets a log's job to {@code replacement} (null removes it), but only if its current job is still
+     * {@code expected} (null meaning absent), so a put or remove that landed in between is kept.
+     * @return Whether the job was replaced.
+     */
+    public synchronized boolean replaceIf(Long logId, Job expected, Job replacement) {
+        if (!Objects.equals(byLogId.get(logId), expected)) {
+            return false;
+        }
+        if (replacement != null) {
+            put(replacement);
+        } else {
+            remove(logId);
+        }
+        return true;
+    }
+
+    public synchronized Map<Long, Job> snapshot() {
+        return Map.copyOf(byLogId);
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(byLogId.size(), unassigned.size(), byTechnician.size());
+    }
+
+    private NavigableSet<Job> queueOf(Long technicianId, boolean create) {
+        if (technicianId == null) {
+            return unassigned;
+        }
+        return create
+                ? byTechnician.computeIfAbsent(technicianId, id -> new TreeSet<>(PRIORITY))
+                : byTechnician.getOrDefault(technicianId, new TreeSet<>(PRIORITY));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.cropmaint.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Puts an {@link AdmissionControlledDataSource} in front of the application DataSource when
+ * cropmaint.datasource.admission.enabled is set. The permit count defaults to the Hikari pool size,
+ * so admitted callers never wait inside the pool itself.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "cropmaint.datasource.admission.enabled", havingValue = "true")
+public class DataSourceAdmissionConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceAdmissionConfiguration.class);
+
+    @Bean
+    static BeanPostProcessor dataSourceAdmissionPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof AdmissionControlledDataSource) {
+                    return bean;
+                }
+                int maxConcurrent = environment.getProperty("cropmaint.datasource.admission.max-concurrent", Integer.class, 0);
+                if (maxConcurrent <= 0) {
+                    maxConcurrent = poolSizeOf(dataSource);
+                }
+                Duration timeout = environment.getProperty("cropmaint.datasource.admission.timeout", Duration.class, Duration.ofSeconds(5));
+                logger.info("Admitting at most {} concurrent connections to '{}' (timeout {})", maxConcurrent, beanName, timeout);
+                return new AdmissionControlledDataSource(dataSource, maxConcurrent, timeout);
+            }
+        };
+    }
+
+    private static int poolSizeOf(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            logger.debug("Could not read pool size from {}", dataSource, e);
+        }
+        return 10;
+    }
+}
@@ -0,0 +1,109 @@
+package com.cropmaint.concurrency;
+
+import com.cropmaint.exception.VersionConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write that relies on @Version checks, retrying it when another writer got there first.
+ *
+ * Retrying suits server-side writes that recompute their change from the fresh row, such as moving a
+ * machine's last-maintenance snapshot. A client edit carries the version it was based on (If-Match)
+ * and each attempt checks it again, so a retry can only absorb a conflict on some other row it
+ * touches; a {@link VersionConflictException} thrown by that check is final. Either way a conflict
+ * that is not retried ends as a {@link VersionConflictException} (409).
+ *
+ * Every conflict is counted as cropmaint.optimistic.lock.conflicts, tagged with the entity and whether
+ * it was retried or rejected.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    public OptimisticRetry(TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                           @Value("${cropmaint.optimistic-lock.max-attempts:3}") int maxAttempts,
+                           @Value("${cropmaint.optimistic-lock.backoff:PT0.01S}") Duration backoff) {
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.backoff = backoff;
+    }
+
+    /**
+     * Runs {@code attempt}, which opens its own transactions, up to max-attempts times while it fails
+     * with an optimistic locking conflict.
+     * @param entity Entity name, for the message and the metric tag.
+     * @param retryable False when a re-read can only confirm the conflict: the first one is final.
+     * @throws VersionConflictException if the last attempt still conflicted.
+     */
+    public <T> T execute(String entity, boolean retryable, Supplier<T> attempt) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Every attempt would share the caller's stale persistence context, so retrying cannot help.
+            retryable = false;
+        }
+        int attempts = retryable ? maxAttempts : 1;
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (e instanceof VersionConflictException || attemptNumber >= attempts || !pause(attemptNumber)) {
+                    count(entity, "rejected");
+                    throw e instanceof VersionConflictException conflict ? conflict : new VersionConflictException(
+                            entity + " was modified by another request; reload it and try again.", e);
+                }
+                count(entity, "retried");
+                logger.debug("Optimistic locking conflict on {}, attempt {} of {}", entity, attemptNumber, attempts);
+            }
+        }
+    }
+
+    /**
+     * Like {@link #execute}, with every attempt in a transaction of its own.
+     */
+    public <T> T executeInTransaction(String entity, boolean retryable, Supplier<T> attempt) {
+        return execute(entity, retryable, () -> transactionTemplate.execute(status -> attempt.get()));
+    }
+
+    private void count(String entity, String outcome) {
+        Counter.builder("cropmaint.optimistic.lock.conflicts")
+                .tag("entity", entity)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Sleeps a jittered, linearly growing delay so writers that collided once do not collide again in lockstep.
+     * @return false if interrupted, in which case the caller gives up.
+     */
+    private boolean pause(int attemptNumber) {
+        long maxNanos = backoff.toNanos() * attemptNumber;
+        if (maxNanos <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(maxNanos / 2, maxNanos + 1)));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
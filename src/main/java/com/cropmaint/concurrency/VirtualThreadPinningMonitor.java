@@ -0,0 +1,102 @@
+package com.cropmaint.concurrency;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Watches the JFR jdk.VirtualThreadPinned event while requests run on virtual threads.
+ * A virtual thread that blocks inside a synchronized block or native frame holds on to its carrier
+ * thread, and enough of those starve the whole scheduler. Each distinct pinning stack is logged once
+ * at WARN (then at DEBUG) and counted.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 12;
+
+    private final Duration threshold;
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final Map<String, LongAdder> pinnedByStack = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${cropmaint.virtual-threads.pinning-threshold:PT0.02S}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("Reporting virtual threads pinned for longer than {}", threshold);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.sum();
+    }
+
+    /**
+     * @return Pinning count per distinct stack (top frames, outermost last).
+     */
+    public Map<String, Long> getPinnedByStack() {
+        return pinnedByStack.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.increment();
+        String stack = describe(event);
+        LongAdder count = pinnedByStack.computeIfAbsent(stack, key -> new LongAdder());
+        count.increment();
+        if (count.sum() == 1) {
+            logger.warn("Virtual thread pinned its carrier for {} ms:\n{}", event.getDuration().toMillis(), stack);
+        } else {
+            logger.debug("Virtual thread pinned its carrier for {} ms ({} times at this stack)",
+                    event.getDuration().toMillis(), count.sum());
+        }
+    }
+
+    private static String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "\tat <no stack trace>";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(STACK_DEPTH)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : ""))
+                .collect(Collectors.joining("\n"));
+    }
+}
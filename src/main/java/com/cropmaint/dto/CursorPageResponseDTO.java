@@ -0,0 +1,21 @@
+package com.cropmaint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * Pass {@code nextCursor} back as the {@code after} parameter to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponseDTO<T> {
+
+    private List<T> items;
+    private Long nextCursor;
+    private boolean hasMore;
+}
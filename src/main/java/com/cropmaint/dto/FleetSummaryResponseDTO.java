@@ -0,0 +1,31 @@
+package com.cropmaint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Data
+@NoArgsConstructor
+public class FleetSummaryResponseDTO {
+
+    private long total;
+    private Map<String, Long> byStatus = new TreeMap<>();
+    private Map<String, Long> byCriticality = new TreeMap<>();
+    private Map<String, Long> byLocation = new TreeMap<>();
+    private List<CellCount> cells = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CellCount {
+        private String status;
+        private String criticalityLevel;
+        private String location;
+        private long count;
+    }
+}
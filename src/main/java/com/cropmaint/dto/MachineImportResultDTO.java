@@ -0,0 +1,27 @@
+package com.cropmaint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class MachineImportResultDTO {
+
+    private int totalRows;
+    private int importedRows;
+    private int failedRows;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String machineCode;
+        private String message;
+    }
+}
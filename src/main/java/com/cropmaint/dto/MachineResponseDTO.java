@@ -25,6 +25,11 @@ public class MachineResponseDTO {
     private String modelNumber;
     private String serialNumber;
     private CriticalityLevel criticalityLevel;
+    private Long lastMaintenanceLogId;
+    private LocalDate lastMaintenanceDate;
+    private String lastMaintenancePerformedBy;
+    private Double lastMaintenanceCost;
+    private Long version;
     private int numberOfMaintenanceLogs;
     private int numberOfSchedules;
 }
\ No newline at end of file
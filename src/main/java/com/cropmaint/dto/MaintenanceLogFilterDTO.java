@@ -0,0 +1,30 @@
+package com.cropmaint.dto;
+
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for maintenance log listings, bound from query parameters.
+ * Unset fields do not restrict the result; from/to are inclusive log dates.
+ */
+@Data
+@NoArgsConstructor
+public class MaintenanceLogFilterDTO {
+
+    private Long machineId;
+
+    @Pattern(regexp = "PENDING|IN_PROGRESS|COMPLETED|CANCELED", message = "Invalid status value. Must be PENDING, IN_PROGRESS, COMPLETED, or CANCELED.")
+    private String status;
+
+    private Long technicianId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+}
@@ -11,6 +11,8 @@ public class MaintenanceLogResponseDTO {
     private Double cost;
     private Long machineId;
     private String status;
+    private Long technicianId;
+    private Long version;
 
     public Long getId() {
         return id;
@@ -67,4 +69,20 @@ public class MaintenanceLogResponseDTO {
     public void setStatus(String status) {
         this.status = status;
     }
-}
\ No newline at end of file
+
+    public Long getTechnicianId() {
+        return technicianId;
+    }
+
+    public void setTechnicianId(Long technicianId) {
+        this.technicianId = technicianId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,33 @@
+package com.cropmaint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class MaintenanceStatusBatchResultDTO {
+
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        INVALID_TRANSITION
+    }
+
+    private String status;
+    private int updatedCount;
+    private List<LogResult> results = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LogResult {
+        private Long id;
+        private String previousStatus;
+        private Outcome outcome;
+    }
+}
@@ -0,0 +1,36 @@
+package com.cropmaint.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class MaintenanceStatusBatchUpdateRequestDTO {
+
+    @NotEmpty(message = "Log IDs cannot be empty")
+    @Size(max = 5000, message = "At most 5000 logs can be updated per request")
+    private List<@NotNull(message = "Log ID cannot be null") Long> ids;
+
+    @NotBlank(message = "Status cannot be blank")
+    @Pattern(regexp = "PENDING|IN_PROGRESS|COMPLETED|CANCELED", message = "Invalid status value. Must be PENDING, IN_PROGRESS, COMPLETED, or CANCELED.")
+    private String status;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
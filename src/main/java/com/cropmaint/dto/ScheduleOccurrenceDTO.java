@@ -0,0 +1,20 @@
+package com.cropmaint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleOccurrenceDTO {
+
+    private LocalDate date;
+    private Long scheduleId;
+    private String description;
+    private Long machineId;
+    private String location;
+    private Long technicianId;
+}
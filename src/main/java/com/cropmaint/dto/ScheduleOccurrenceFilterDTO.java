@@ -0,0 +1,31 @@
+package com.cropmaint.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Date window and optional filters for schedule occurrence expansion, bound from query parameters.
+ * from/to are inclusive; unset filters do not restrict the result.
+ */
+@Data
+@NoArgsConstructor
+public class ScheduleOccurrenceFilterDTO {
+
+    @NotNull(message = "from is required")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @NotNull(message = "to is required")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private Long machineId;
+
+    private Long technicianId;
+
+    private String location;
+}
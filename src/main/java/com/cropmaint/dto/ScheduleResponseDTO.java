@@ -0,0 +1,22 @@
+package com.cropmaint.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class ScheduleResponseDTO {
+
+    private Long id;
+    private String description;
+    private LocalDate dueDate;
+    private Integer frequencyDays;
+    private String frequencyType;
+    private LocalDate lastPerformedDate;
+    private Boolean active;
+    private Long machineId;
+    private Long technicianId;
+    private Long version;
+}
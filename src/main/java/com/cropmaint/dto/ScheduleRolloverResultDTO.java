@@ -0,0 +1,17 @@
+package com.cropmaint.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class ScheduleRolloverResultDTO {
+
+    private LocalDate asOf;
+    private int chunks;
+    private int rolledSchedules;
+    private int createdLogs;
+    private int skippedSchedules;
+}
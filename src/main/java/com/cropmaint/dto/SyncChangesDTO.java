@@ -0,0 +1,32 @@
+package com.cropmaint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything that changed since a sync token. Pass {@code token} back on the next sync.
+ * When {@code reset} is true the lists hold every row and the device should replace its copy.
+ */
+@Data
+@NoArgsConstructor
+public class SyncChangesDTO {
+
+    private String token;
+    private boolean reset;
+    private List<MachineResponseDTO> machines = new ArrayList<>();
+    private List<MaintenanceLogResponseDTO> logs = new ArrayList<>();
+    private List<ScheduleResponseDTO> schedules = new ArrayList<>();
+    private List<Deletion> deletions = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Deletion {
+        private String entityType;
+        private Long id;
+    }
+}
@@ -0,0 +1,48 @@
+package com.cropmaint.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Log creates and edits made on a device while offline, applied in order.
+ * Each write is validated on its own, so one bad write is rejected without failing the batch.
+ */
+@Data
+@NoArgsConstructor
+public class SyncLogBatchRequestDTO {
+
+    @NotEmpty(message = "Writes cannot be empty")
+    @Size(max = 500, message = "At most 500 writes can be uploaded per request")
+    private List<@NotNull(message = "Write cannot be null") Write> writes;
+
+    @Data
+    @NoArgsConstructor
+    public static class Write {
+
+        /**
+         * The device's id for the write; required for creates, which it makes idempotent.
+         */
+        @Size(max = 64, message = "Client reference cannot be longer than 64 characters")
+        private String clientRef;
+
+        /**
+         * The log to edit, or null to create one.
+         */
+        private Long id;
+
+        /**
+         * The version the edit was made against; required for edits.
+         */
+        private Long baseVersion;
+
+        @Valid
+        @NotNull(message = "Log cannot be null")
+        private MaintenanceLogRequestDTO log;
+    }
+}
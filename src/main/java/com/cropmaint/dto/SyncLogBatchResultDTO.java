@@ -0,0 +1,37 @@
+package com.cropmaint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class SyncLogBatchResultDTO {
+
+    public enum Outcome {
+        CREATED,
+        // The clientRef was uploaded before; log is the one it created.
+        DUPLICATE,
+        UPDATED,
+        // The log changed since baseVersion; log is the server's copy.
+        CONFLICT,
+        NOT_FOUND,
+        REJECTED
+    }
+
+    private List<WriteResult> results = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WriteResult {
+        private String clientRef;
+        private Long id;
+        private Outcome outcome;
+        private String message;
+        private MaintenanceLogResponseDTO log;
+    }
+}
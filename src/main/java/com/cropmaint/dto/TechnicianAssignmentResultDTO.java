@@ -0,0 +1,36 @@
+package com.cropmaint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class TechnicianAssignmentResultDTO {
+
+    private LocalDate asOf;
+    private boolean dryRun;
+    private int technicians;
+    private int candidateLogs;
+    private int candidateSchedules;
+    private int assignedLogs;
+    private int assignedSchedules;
+    private long solveMillis;
+    private Map<Long, Integer> loadByTechnician = new HashMap<>();
+    private List<Assignment> assignments = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Assignment {
+        private String kind;
+        private Long id;
+        private Long technicianId;
+    }
+}
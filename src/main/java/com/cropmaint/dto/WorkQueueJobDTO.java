@@ -0,0 +1,19 @@
+package com.cropmaint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkQueueJobDTO {
+
+    private Long logId;
+    private Long machineId;
+    private Long technicianId;
+    private String criticalityLevel;
+    private LocalDate dueDate;
+}
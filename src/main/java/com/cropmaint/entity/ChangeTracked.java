@@ -0,0 +1,13 @@
+package com.cropmaint.entity;
+
+/**
+ * An entity whose inserts, updates and deletes are published on the sync feed; see ChangeSequenceListener.
+ */
+public interface ChangeTracked {
+
+    Long getId();
+
+    void setChangeSeq(Long changeSeq);
+
+    Tombstone.EntityType syncEntityType();
+}
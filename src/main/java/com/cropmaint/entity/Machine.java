@@ -1,6 +1,12 @@
 package com.cropmaint.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import com.cropmaint.sync.ChangeSequenceListener;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,16 +15,29 @@ import com.cropmaint.enums.MachineStatus;
 import com.cropmaint.enums.CriticalityLevel;
 
 @Entity
-@Table(name = "machines")
-public class Machine {
+@Table(name = "machines", indexes = {
+        @Index(name = "idx_machines_change_seq", columnList = "change_seq")
+})
+@EntityListeners(ChangeSequenceListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Machine.CACHE_REGION)
+@NaturalIdCache(region = Machine.CACHE_REGION + "-by-code")
+public class Machine implements ChangeTracked {
 
+    public static final String CACHE_REGION = "machines";
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence ids (table-emulated on MySQL) let Hibernate batch inserts, which IDENTITY prevents.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "machines_seq")
+    @SequenceGenerator(name = "machines_seq", sequenceName = "machines_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
+    // Editable through PUT /api/machines/{id}, hence mutable.
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String machineCode;
 
@@ -35,6 +54,27 @@ public class Machine {
     @Enumerated(EnumType.STRING)
     private CriticalityLevel criticalityLevel;
 
+    // Maintained by LastMaintenanceSnapshotService; null until the machine has a completed log.
+    @Embedded
+    private MaintenanceSnapshot lastMaintenance;
+
+    // Bumped on every change, including last-maintenance snapshot updates and the startup backfill; backs the ETag.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // The version the last edit of the machine's own fields produced. Snapshot updates leave it behind,
+    // so an If-Match at or after it was made against the fields as they are now.
+    @ColumnDefault("0")
+    @Column(name = "edited_version", nullable = false)
+    private Long editedVersion = 0L;
+
+    // Change number of the last transaction that wrote the row, for the sync feed; set by ChangeSequenceListener.
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
     @OneToMany(mappedBy = "machine", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<MaintenanceLog> maintenanceLogs = new ArrayList<>();
 
@@ -130,6 +170,45 @@ public class Machine {
     public void setCriticalityLevel(CriticalityLevel criticalityLevel) {
         this.criticalityLevel = criticalityLevel;
     }
+
+    public MaintenanceSnapshot getLastMaintenance() {
+        return lastMaintenance;
+    }
+
+    public void setLastMaintenance(MaintenanceSnapshot lastMaintenance) {
+        this.lastMaintenance = lastMaintenance;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getEditedVersion() {
+        return editedVersion;
+    }
+
+    public void setEditedVersion(Long editedVersion) {
+        this.editedVersion = editedVersion;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    @Override
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    @Override
+    public Tombstone.EntityType syncEntityType() {
+        return Tombstone.EntityType.MACHINE;
+    }
+
     public List<MaintenanceLog> getMaintenanceLogs() {
         return maintenanceLogs;
     }
@@ -3,11 +3,19 @@ package com.cropmaint.entity;
 import com.cropmaint.model.MaintenanceStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import com.cropmaint.sync.ChangeSequenceListener;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "maintenance_logs")
-public class MaintenanceLog {
+@Table(name = "maintenance_logs", indexes = {
+        @Index(name = "idx_maintenance_logs_machine_date", columnList = "machine_id, log_date"),
+        @Index(name = "idx_maintenance_logs_technician_status", columnList = "technician_id, status, log_date"),
+        @Index(name = "idx_maintenance_logs_status_date", columnList = "status, log_date"),
+        @Index(name = "idx_maintenance_logs_change_seq", columnList = "change_seq")
+})
+@EntityListeners(ChangeSequenceListener.class)
+public class MaintenanceLog implements ChangeTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -38,6 +46,21 @@ public class MaintenanceLog {
     @JoinColumn(name = "technician_id")
     private User technician;
 
+    // Bumped on every change, including bulk status and assignment updates; backs the ETag.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Change number of the last transaction that wrote the row, for the sync feed; set by ChangeSequenceListener.
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    // Set when the log was created offline and uploaded through the sync endpoint; makes the upload idempotent.
+    @Column(name = "client_ref", unique = true, length = 64)
+    private String clientRef;
+
     public MaintenanceLog() {
     }
 
@@ -107,6 +130,44 @@ public class MaintenanceLog {
         this.status = status;
     }
 
+    public User getTechnician() {
+        return technician;
+    }
+
+    public void setTechnician(User technician) {
+        this.technician = technician;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    @Override
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public String getClientRef() {
+        return clientRef;
+    }
+
+    public void setClientRef(String clientRef) {
+        this.clientRef = clientRef;
+    }
+
+    @Override
+    public Tombstone.EntityType syncEntityType() {
+        return Tombstone.EntityType.MAINTENANCE_LOG;
+    }
+
     @Override
     public String toString() {
         return "MaintenanceLog{" +
@@ -0,0 +1,61 @@
+package com.cropmaint.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.time.LocalDate;
+
+/**
+ * Denormalized copy of a machine's most recent COMPLETED maintenance log,
+ * so fleet listings can show "last serviced on / by / cost" without a per-machine query.
+ */
+@Embeddable
+public class MaintenanceSnapshot {
+
+    @Column(name = "last_maintenance_log_id")
+    private Long logId;
+
+    @Column(name = "last_maintenance_date")
+    private LocalDate date;
+
+    @Column(name = "last_maintenance_performed_by")
+    private String performedBy;
+
+    @Column(name = "last_maintenance_cost")
+    private Double cost;
+
+    public MaintenanceSnapshot() {
+    }
+
+    public Long getLogId() {
+        return logId;
+    }
+
+    public void setLogId(Long logId) {
+        this.logId = logId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public String getPerformedBy() {
+        return performedBy;
+    }
+
+    public void setPerformedBy(String performedBy) {
+        this.performedBy = performedBy;
+    }
+
+    public Double getCost() {
+        return cost;
+    }
+
+    public void setCost(Double cost) {
+        this.cost = cost;
+    }
+}
@@ -1,20 +1,26 @@
 package com.cropmaint.entity;
 
 import com.cropmaint.enums.FrequencyType;
+import com.cropmaint.sync.ChangeSequenceListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "schedule")
+@Table(name = "schedule", indexes = {
+        @Index(name = "idx_schedule_active_due", columnList = "active, maintenance_due_date"),
+        @Index(name = "idx_schedule_change_seq", columnList = "change_seq")
+})
+@EntityListeners(ChangeSequenceListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Schedule {
+public class Schedule implements ChangeTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +32,11 @@ public class Schedule {
     @Column(name = "maintenance_due_date", nullable = false)
     private LocalDate maintenanceDueDate;
 
+    // First due date of the series; occurrences are counted from it so month-end dates do not drift.
+    // Null until the first rollover pins it, meaning the due date is still the first occurrence.
+    @Column(name = "series_start")
+    private LocalDate seriesStart;
+
     @Column(name = "created_on", nullable = false)
     private LocalDateTime createdOn;
 
@@ -49,4 +60,20 @@ public class Schedule {
     @JoinColumn(name = "assigned_technician_id")
     private User assignedTechnician;
 
+    // Bumped on every change, including the rollover and assignment batches.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Change number of the last transaction that wrote the row, for the sync feed; set by ChangeSequenceListener.
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Override
+    public Tombstone.EntityType syncEntityType() {
+        return Tombstone.EntityType.SCHEDULE;
+    }
+
 }
@@ -0,0 +1,25 @@
+package com.cropmaint.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row recording how far SyncSequence has handed out change numbers in sync tokens, so a
+ * restart never allocates a number a device has already been told is behind it.
+ * Written with plain JDBC by SyncSequence; mapped only so the schema is generated with the rest.
+ */
+@Entity
+@Table(name = "sync_checkpoint")
+@Data
+@NoArgsConstructor
+public class SyncCheckpoint {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "issued_up_to", nullable = false)
+    private Long issuedUpTo;
+}
@@ -0,0 +1,40 @@
+package com.cropmaint.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records a deleted machine, log or schedule so the sync feed can tell devices to drop it.
+ * Kept for cropmaint.sync.tombstone-retention; sync tokens older than that force a full resync.
+ */
+@Entity
+@Table(name = "tombstones", indexes = {
+        @Index(name = "idx_tombstones_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_tombstones_deleted_at", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+public class Tombstone {
+
+    public enum EntityType { MACHINE, MAINTENANCE_LOG, SCHEDULE }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,78 @@
+package com.cropmaint.metrics;
+
+import com.cropmaint.cache.MachineRegistryCache;
+import com.cropmaint.cache.TechnicianWorkQueue;
+import com.cropmaint.concurrency.AdmissionControlledDataSource;
+import com.cropmaint.concurrency.VirtualThreadPinningMonitor;
+import com.cropmaint.service.ScheduleEngine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Exposes the in-memory structures (machine registry, work queue, schedule engine) and the
+ * virtual-thread safeguards as metrics.
+ */
+@Component
+public class ApplicationMetrics implements MeterBinder {
+
+    private final MachineRegistryCache machineRegistry;
+    private final TechnicianWorkQueue workQueue;
+    private final ScheduleEngine scheduleEngine;
+    private final DataSource dataSource;
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+
+    public ApplicationMetrics(MachineRegistryCache machineRegistry, TechnicianWorkQueue workQueue, ScheduleEngine scheduleEngine,
+                              DataSource dataSource, ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor) {
+        this.machineRegistry = machineRegistry;
+        this.workQueue = workQueue;
+        this.scheduleEngine = scheduleEngine;
+        this.dataSource = dataSource;
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cropmaint.machine.registry.requests", machineRegistry, cache -> cache.stats().hits())
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("cropmaint.machine.registry.requests", machineRegistry, cache -> cache.stats().misses())
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("cropmaint.machine.registry.evictions", machineRegistry, cache -> cache.stats().evictions())
+                .register(registry);
+        Gauge.builder("cropmaint.machine.registry.size", machineRegistry, cache -> cache.stats().size())
+                .register(registry);
+
+        Gauge.builder("cropmaint.work.queue.jobs", workQueue, queue -> queue.stats().jobs())
+                .register(registry);
+        Gauge.builder("cropmaint.work.queue.unassigned", workQueue, queue -> queue.stats().unassigned())
+                .register(registry);
+        Gauge.builder("cropmaint.schedule.engine.tracked", scheduleEngine, ScheduleEngine::size)
+                .register(registry);
+
+        AdmissionControlledDataSource admission = admissionOf(dataSource);
+        if (admission != null) {
+            Gauge.builder("cropmaint.datasource.admission.available", admission, AdmissionControlledDataSource::getAvailablePermits)
+                    .register(registry);
+            Gauge.builder("cropmaint.datasource.admission.waiting", admission, AdmissionControlledDataSource::getQueueLength)
+                    .register(registry);
+        }
+        pinningMonitor.ifAvailable(monitor -> FunctionCounter
+                .builder("cropmaint.virtual.threads.pinned", monitor, VirtualThreadPinningMonitor::getPinnedEvents)
+                .register(registry));
+    }
+
+    private static AdmissionControlledDataSource admissionOf(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(AdmissionControlledDataSource.class)
+                    ? dataSource.unwrap(AdmissionControlledDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
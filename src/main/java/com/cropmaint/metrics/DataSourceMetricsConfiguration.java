@@ -0,0 +1,37 @@
+package com.cropmaint.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy that feeds {@link JdbcMetricsListener}.
+ * Disable with cropmaint.metrics.jdbc.enabled=false.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "cropmaint.metrics.jdbc.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceMetricsConfiguration {
+
+    @Bean
+    static BeanPostProcessor jdbcMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        JdbcMetricsListener listener = new JdbcMetricsListener(meterRegistry);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(listener)
+                        .build();
+            }
+        };
+    }
+}
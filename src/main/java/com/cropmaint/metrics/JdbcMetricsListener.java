@@ -0,0 +1,99 @@
+package com.cropmaint.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.lifecycle.JdbcLifecycleEventListenerAdapter;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every statement execution and connection checkout seen by the datasource proxy.
+ * Statements are recorded in the cropmaint.jdbc.statements timer, tagged with the statement kind
+ * (select, insert, update, delete, other) and whether it ran as a batch. Both are also added to
+ * the current {@link RequestActivity}.
+ */
+class JdbcMetricsListener extends JdbcLifecycleEventListenerAdapter {
+
+    private static final String STARTED = JdbcMetricsListener.class.getName() + ".started";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Timer> statementTimers = new ConcurrentHashMap<>();
+
+    JdbcMetricsListener(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeGetConnection(MethodExecutionContext executionContext) {
+        executionContext.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterGetConnection(MethodExecutionContext executionContext) {
+        RequestActivity activity = RequestActivity.current();
+        Long started = executionContext.getCustomValue(STARTED, Long.class);
+        if (activity != null && started != null) {
+            activity.connectionAcquired(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        if (started == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+        RequestActivity activity = RequestActivity.current();
+        if (activity != null) {
+            activity.statementExecuted(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery(), elapsed);
+        }
+        Timer timer = statementTimer(kindOf(queryInfoList), execInfo.isBatch());
+        if (timer != null) {
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer statementTimer(String kind, boolean batch) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return null;
+        }
+        return statementTimers.computeIfAbsent(kind + batch, key -> Timer.builder("cropmaint.jdbc.statements")
+                .description("JDBC statement executions")
+                .tag("kind", kind)
+                .tag("batch", Boolean.toString(batch))
+                .register(registry));
+    }
+
+    static String kindOf(List<QueryInfo> queries) {
+        if (queries.isEmpty() || queries.get(0).getQuery() == null) {
+            return "other";
+        }
+        String sql = queries.get(0).getQuery().stripLeading();
+        int end = 0;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        return switch (sql.substring(0, end).toLowerCase(Locale.ROOT)) {
+            case "select", "with" -> "select";
+            case "insert" -> "insert";
+            case "update" -> "update";
+            case "delete" -> "delete";
+            default -> "other";
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.cropmaint.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database and serialization work done on behalf of the current request, accumulated on the
+ * request thread. Work done on other threads (streaming responses, scheduled jobs) is not attributed.
+ */
+public final class RequestActivity {
+
+    /**
+     * Request attribute holding the finished activity, for tests and error handlers.
+     */
+    public static final String ATTRIBUTE = RequestActivity.class.getName();
+
+    // Enough to see the shape of an N+1 without holding on to a runaway request's every statement
+    private static final int MAX_RECORDED_STATEMENTS = 200;
+
+    private static final ThreadLocal<RequestActivity> CURRENT = new ThreadLocal<>();
+
+    private final List<String> statementSql = new ArrayList<>();
+    private int statements;
+    private long statementNanos;
+    private int connections;
+    private long connectionNanos;
+    private long handlerNanos;
+    private long serializationNanos;
+
+    private RequestActivity() {
+    }
+
+    static RequestActivity begin() {
+        RequestActivity activity = new RequestActivity();
+        CURRENT.set(activity);
+        return activity;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return The activity of the request running on this thread, or null outside a request.
+     */
+    public static RequestActivity current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(String sql, long nanos) {
+        statements++;
+        statementNanos += nanos;
+        if (statementSql.size() < MAX_RECORDED_STATEMENTS) {
+            statementSql.add(sql);
+        }
+    }
+
+    void connectionAcquired(long nanos) {
+        connections++;
+        connectionNanos += nanos;
+    }
+
+    void handled(long nanos) {
+        handlerNanos += nanos;
+    }
+
+    void serialized(long nanos) {
+        serializationNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * @return SQL of the statements executed, in order (the first 200).
+     */
+    public List<String> getStatementSql() {
+        return Collections.unmodifiableList(statementSql);
+    }
+
+    /**
+     * @return Recorded statements grouped by SQL, most frequent first.
+     */
+    public Map<String, Integer> getStatementCountsBySql() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        statementSql.forEach(sql -> counts.merge(sql, 1, Integer::sum));
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        entries.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    public long getStatementNanos() {
+        return statementNanos;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public long getConnectionNanos() {
+        return connectionNanos;
+    }
+
+    /**
+     * @return Time spent in the handler that was neither database work nor response serialization:
+     * service logic and entity to DTO mapping.
+     */
+    public long getMappingNanos() {
+        return Math.max(0, handlerNanos - statementNanos - connectionNanos - serializationNanos);
+    }
+
+    public long getSerializationNanos() {
+        return serializationNanos;
+    }
+}
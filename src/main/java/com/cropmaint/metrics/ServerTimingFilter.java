@@ -0,0 +1,133 @@
+package com.cropmaint.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per-request database activity and reports where the time went in a Server-Timing header:
+ * db (statement execution, with the statement count), pool (connection checkout), mapping (the
+ * rest of the handler) and serialization.
+ *
+ * Headers must be set before the body is committed, so the response is buffered until the chain
+ * returns. That holds every response body in memory, so the header is off unless
+ * cropmaint.metrics.server-timing.enabled is set, for profiling. Streaming (NDJSON) endpoints are
+ * never buffered; they get the metrics but no header.
+ * Statement counts and database time also go to the cropmaint.request.statements and
+ * cropmaint.request.db metrics, tagged with method and URI pattern.
+ *
+ * A request that executes more statements than cropmaint.metrics.statement-budget (0 disables) is
+ * logged at WARN with its most repeated statements, which is usually enough to spot an N+1.
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServerTimingFilter.class);
+    private static final int REPORTED_STATEMENTS = 5;
+
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    private final boolean headerEnabled;
+    private final List<String> unbufferedPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public ServerTimingFilter(MeterRegistry meterRegistry,
+                              @Value("${cropmaint.metrics.statement-budget:25}") int statementBudget,
+                              @Value("${cropmaint.metrics.server-timing.enabled:false}") boolean headerEnabled,
+                              @Value("${cropmaint.metrics.server-timing.unbuffered-paths:/api/machines/stream,/api/maintenance-logs/export,/api/schedules/occurrences,/actuator/**}")
+                              List<String> unbufferedPaths) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.headerEnabled = headerEnabled;
+        this.unbufferedPaths = unbufferedPaths;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestActivity activity = RequestActivity.begin();
+        boolean buffered = headerEnabled && !isUnbuffered(request);
+        ContentCachingResponseWrapper bufferedResponse = buffered ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            chain.doFilter(request, buffered ? bufferedResponse : response);
+        } finally {
+            RequestActivity.end();
+            request.setAttribute(RequestActivity.ATTRIBUTE, activity);
+            record(request, activity);
+            if (buffered) {
+                if (!bufferedResponse.isCommitted()) {
+                    bufferedResponse.setHeader("Server-Timing", serverTiming(activity));
+                }
+                bufferedResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    private boolean isUnbuffered(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return unbufferedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private void record(HttpServletRequest request, RequestActivity activity) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("cropmaint.request.statements")
+                .description("JDBC statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(activity.getStatements());
+        Timer.builder("cropmaint.request.db")
+                .description("Statement execution time per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(activity.getStatementNanos(), TimeUnit.NANOSECONDS);
+        if (statementBudget > 0 && activity.getStatements() > statementBudget) {
+            Counter.builder("cropmaint.request.statement.budget.exceeded")
+                    .description("Requests that executed more statements than the statement budget")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("{} {} executed {} statements (budget {}). Most repeated:\n{}", request.getMethod(),
+                    request.getRequestURI(), activity.getStatements(), statementBudget, mostRepeated(activity));
+        }
+    }
+
+    private static String mostRepeated(RequestActivity activity) {
+        return activity.getStatementCountsBySql().entrySet().stream()
+                .limit(REPORTED_STATEMENTS)
+                .map(entry -> "\t" + entry.getValue() + " x " + entry.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+
+    static String serverTiming(RequestActivity activity) {
+        return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d statements\", pool;dur=%.2f, mapping;dur=%.2f, serialization;dur=%.2f",
+                millis(activity.getStatementNanos()), activity.getStatements(), millis(activity.getConnectionNanos()),
+                millis(activity.getMappingNanos()), millis(activity.getSerializationNanos()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
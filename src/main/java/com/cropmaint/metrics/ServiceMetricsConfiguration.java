@@ -0,0 +1,65 @@
+package com.cropmaint.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public method of every @Service bean into the cropmaint.service.invocations timer,
+ * tagged with the service class, method and exception (if any).
+ * Registered as an infrastructure advisor so it joins the proxies already created for @Transactional.
+ * Disable with cropmaint.metrics.services.enabled=false.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "cropmaint.metrics.services.enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceMetricsConfiguration {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<Method, Timer> timers = new ConcurrentHashMap<>();
+        MethodInterceptor interceptor = invocation -> {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return invocation.proceed();
+            }
+            Class<?> serviceClass = ClassUtils.getUserClass(invocation.getThis() != null
+                    ? invocation.getThis().getClass() : invocation.getMethod().getDeclaringClass());
+            Timer.Sample sample = Timer.start(registry);
+            try {
+                Object result = invocation.proceed();
+                sample.stop(timers.computeIfAbsent(invocation.getMethod(),
+                        method -> timer(registry, serviceClass, method, "none")));
+                return result;
+            } catch (Throwable e) {
+                sample.stop(timer(registry, serviceClass, invocation.getMethod(), e.getClass().getSimpleName()));
+                throw e;
+            }
+        };
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true), interceptor);
+    }
+
+    private static Timer timer(MeterRegistry registry, Class<?> serviceClass, Method method, String exception) {
+        return Timer.builder("cropmaint.service.invocations")
+                .description("Service method invocations")
+                .tag("class", serviceClass.getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.cropmaint.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Splits request time into the parts reported by {@link ServerTimingFilter}: the handler interceptor
+ * measures time inside the controller and the JSON converter measures serialization.
+ */
+@Configuration(proxyBeanMethods = false)
+public class WebMetricsConfiguration implements WebMvcConfigurer {
+
+    private static final String HANDLER_STARTED = WebMetricsConfiguration.class.getName() + ".handlerStarted";
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                request.setAttribute(HANDLER_STARTED, System.nanoTime());
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                RequestActivity activity = RequestActivity.current();
+                if (activity != null && request.getAttribute(HANDLER_STARTED) instanceof Long started) {
+                    activity.handled(System.nanoTime() - started);
+                }
+            }
+        });
+    }
+
+    /**
+     * Replaces Spring Boot's JSON converter (same ObjectMapper) with one that times its writes.
+     */
+    @Bean
+    MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                long started = System.nanoTime();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    RequestActivity activity = RequestActivity.current();
+                    if (activity != null) {
+                        activity.serialized(System.nanoTime() - started);
+                    }
+                }
+            }
+        };
+    }
+}
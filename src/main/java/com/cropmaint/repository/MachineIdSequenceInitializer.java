@@ -0,0 +1,49 @@
+package com.cropmaint.repository;
+
+import com.cropmaint.entity.Machine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the table-emulated machines_seq past ids that were handed out by the old
+ * AUTO_INCREMENT column, so the pooled generator never allocates an existing id.
+ * The pooled optimizer treats the stored value as the top of the next block, hence the
+ * extra allocation size of headroom. Databases with native sequences have no such table
+ * and are left untouched.
+ * Runs once every singleton exists, which is before the web server starts taking requests,
+ * so no machine can be created while the sequence is still behind.
+ */
+@Component
+public class MachineIdSequenceInitializer implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(MachineIdSequenceInitializer.class);
+
+    private final MachineRepository machineRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public MachineIdSequenceInitializer(MachineRepository machineRepository, JdbcTemplate jdbcTemplate) {
+        this.machineRepository = machineRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long maxId = machineRepository.findMaxId();
+        if (maxId == 0) {
+            return;
+        }
+        long floor = maxId + Machine.ID_ALLOCATION_SIZE + 1;
+        try {
+            int updated = jdbcTemplate.update("UPDATE machines_seq SET next_val = ? WHERE next_val < ?", floor, floor);
+            if (updated > 0) {
+                logger.info("Advanced machines_seq to {} (max machine id {})", floor, maxId);
+            }
+        } catch (DataAccessException e) {
+            logger.debug("machines_seq is not table-backed, skipping alignment: {}", e.getMessage());
+        }
+    }
+}
@@ -1,20 +1,119 @@
 package com.cropmaint.repository;
 
 import com.cropmaint.entity.Machine;
+import com.cropmaint.enums.CriticalityLevel;
 import com.cropmaint.enums.MachineStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface MachineRepository extends JpaRepository<Machine, Long> {
 
+    // Selects a MachineView.
+    String MACHINE_VIEW = "select new com.cropmaint.repository.MachineRepository$MachineView(m.id, m.name, m.machineCode, " +
+            "m.location, m.installDate, m.status, m.machineType, m.manufacturer, m.modelNumber, m.serialNumber, " +
+            "m.criticalityLevel, m.lastMaintenance.logId, m.lastMaintenance.date, m.lastMaintenance.performedBy, " +
+            "m.lastMaintenance.cost, m.version) from Machine m ";
+
+    /**
+     * A machine as the read endpoints return it, constructed straight from the columns without loading the entity.
+     */
+    record MachineView(Long id, String name, String machineCode, String location, LocalDate installDate,
+                       MachineStatus status, String machineType, String manufacturer, String modelNumber,
+                       String serialNumber, CriticalityLevel criticalityLevel, Long lastMaintenanceLogId,
+                       LocalDate lastMaintenanceDate, String lastMaintenancePerformedBy, Double lastMaintenanceCost,
+                       Long version) {
+    }
+
+    /**
+     * Fingerprint of a set of rows, for collection ETags. Versions only grow and ids are never reused,
+     * so inserting, updating or deleting a row of the set changes at least one component.
+     */
+    record CollectionVersion(Long rows, Long maxId, Long idSum, Long versionSum) {
+    }
+
+    interface FleetCellCount {
+        MachineStatus getStatus();
+        CriticalityLevel getCriticalityLevel();
+        String getLocation();
+        Long getTotal();
+    }
+
+    // Cached query: the result id is resolved from the machines region until the table is next written.
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Machine> findByMachineCode(String machineCode);
 
     List<Machine> findByStatus(MachineStatus status);
 
     List<Machine> findByLocationOrderByName(String location);
 
+    @Query(MACHINE_VIEW + "order by m.id")
+    List<MachineView> findAllViews();
+
+    // Keyset page: walks the primary key index instead of OFFSET scanning.
+    @Query(MACHINE_VIEW + "where m.id > :afterId order by m.id")
+    List<MachineView> findViewsByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
+
+    // Forward-only cursor over the whole fleet; must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(MACHINE_VIEW + "order by m.id")
+    Stream<MachineView> streamAllOrderById();
+
+    // Machines written by the transactions numbered after..upTo, for the sync feed; walks idx_machines_change_seq.
+    @Query(MACHINE_VIEW + "where m.changeSeq > :after and m.changeSeq <= :upTo order by m.id")
+    List<MachineView> findViewsChangedBetween(@Param("after") long after, @Param("upTo") long upTo);
+
+    @Query("select new com.cropmaint.repository.MachineRepository$CollectionVersion(count(m), coalesce(max(m.id), 0L), " +
+            "coalesce(sum(m.id), 0L), coalesce(sum(m.version), 0L)) from Machine m")
+    CollectionVersion findCollectionVersion();
+
+    @Query("select m.machineCode from Machine m where m.machineCode in :codes")
+    List<String> findExistingMachineCodes(@Param("codes") Collection<String> codes);
+
+    @Query("select m.status as status, m.criticalityLevel as criticalityLevel, m.location as location, count(m) as total " +
+            "from Machine m group by m.status, m.criticalityLevel, m.location")
+    List<FleetCellCount> countByStatusCriticalityAndLocation();
+
+    // The bulk updates below bypass Hibernate's versioning and entity listeners, so each bumps the version
+    // and stamps the change number (SyncSequence.current()) itself. They evict every cached machine, so
+    // they are kept to the startup backfill.
+
+    // Backfill, step 1: point machines without a snapshot at their newest completed log.
+    @Modifying
+    @Query("update Machine m set m.lastMaintenance.logId = (" +
+            "select max(l.id) from MaintenanceLog l where l.machine = m and l.status = com.cropmaint.model.MaintenanceStatus.COMPLETED " +
+            "and l.logDate = (select max(l2.logDate) from MaintenanceLog l2 where l2.machine = m " +
+            "and l2.status = com.cropmaint.model.MaintenanceStatus.COMPLETED)), m.version = m.version + 1, m.changeSeq = :changeSeq " +
+            "where m.lastMaintenance.logId is null and exists (select 1 from MaintenanceLog l3 where l3.machine = m " +
+            "and l3.status = com.cropmaint.model.MaintenanceStatus.COMPLETED)")
+    int backfillLastMaintenanceLogIds(@Param("changeSeq") long changeSeq);
+
+    // Backfill, step 2: copy date, technician and cost from the log chosen in step 1.
+    @Modifying
+    @Query("update Machine m set " +
+            "m.lastMaintenance.date = (select l.logDate from MaintenanceLog l where l.id = m.lastMaintenance.logId), " +
+            "m.lastMaintenance.performedBy = (select l.performedBy from MaintenanceLog l where l.id = m.lastMaintenance.logId), " +
+            "m.lastMaintenance.cost = (select l.cost from MaintenanceLog l where l.id = m.lastMaintenance.logId), " +
+            "m.version = m.version + 1, m.changeSeq = :changeSeq " +
+            "where m.lastMaintenance.logId is not null and m.lastMaintenance.date is null")
+    int backfillLastMaintenanceDetails(@Param("changeSeq") long changeSeq);
+
+    @Query("select coalesce(max(m.id), 0) from Machine m")
+    long findMaxId();
+
 }
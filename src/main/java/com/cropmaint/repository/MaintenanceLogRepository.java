@@ -3,31 +3,230 @@ package com.cropmaint.repository;
 import com.cropmaint.entity.MaintenanceLog;
 import com.cropmaint.entity.Machine;
 import com.cropmaint.entity.User;
-import com.cropmaint.enums.MaintenanceLogStatus;
+import com.cropmaint.enums.CriticalityLevel;
+import com.cropmaint.model.MaintenanceStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface MaintenanceLogRepository extends JpaRepository<MaintenanceLog, Long> {
 
+    // Each filter is skipped when its parameter is null.
+    String LOG_FILTER = "(:machineId is null or l.machine.id = :machineId) " +
+            "and (:status is null or l.status = :status) " +
+            "and (:technicianId is null or l.technician.id = :technicianId) " +
+            "and (:fromDate is null or l.logDate >= :fromDate) " +
+            "and (:toDate is null or l.logDate <= :toDate)";
+
+    // Selects a LogView; the machine and technician ids come from the foreign keys, without a join.
+    String LOG_VIEW = "select new com.cropmaint.repository.MaintenanceLogRepository$LogView(l.id, l.logDate, " +
+            "l.description, l.performedBy, l.cost, l.machine.id, l.status, l.technician.id, l.version) from MaintenanceLog l ";
+
+    /**
+     * A log as the read endpoints return it, constructed straight from the columns without loading the entity.
+     * A record rather than an interface projection: a proxy per row costs more than the entity it replaces.
+     */
+    record LogView(Long id, LocalDate logDate, String description, String performedBy, Double cost,
+                   Long machineId, MaintenanceStatus status, Long technicianId, Long version) {
+    }
+
+    interface LogStatusView {
+        Long getId();
+        String getStatus();
+    }
+
+    /**
+     * A log as the technician work queue sees it.
+     */
+    interface WorkQueueJobView {
+        Long getId();
+        LocalDate getLogDate();
+        Long getMachineId();
+        CriticalityLevel getCriticalityLevel();
+        Long getTechnicianId();
+    }
+
+    /**
+     * A job the assignment engine may hand to a technician.
+     */
+    interface AssignableJobView {
+        Long getId();
+        LocalDate getDueDate();
+        String getLocation();
+        CriticalityLevel getCriticalityLevel();
+    }
+
+    interface TechnicianLocationLoadView {
+        Long getTechnicianId();
+        String getLocation();
+        Long getTotal();
+    }
+
     List<MaintenanceLog> findByMachine(Machine machine);
 
-    List<MaintenanceLog> findByStatus(MaintenanceLogStatus status);
+    List<MaintenanceLog> findByStatus(MaintenanceStatus status);
 
-    List<MaintenanceLog> findByMachineAndStatus(Machine machine, MaintenanceLogStatus status);
+    List<MaintenanceLog> findByMachineAndStatus(Machine machine, MaintenanceStatus status);
 
-    List<MaintenanceLog> findByLogDateBetween(LocalDateTime startDateTime, LocalDateTime endDateTime);
+    List<MaintenanceLog> findByLogDateBetween(LocalDate startDate, LocalDate endDate);
+
+    // Served by idx_maintenance_logs_machine_date
+    @Query(LOG_VIEW + "where l.machine.id = :machineId and l.logDate between :from and :to order by l.logDate")
+    List<LogView> findViewsByMachineIdAndLogDateBetween(@Param("machineId") Long machineId,
+                                                        @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Served by idx_maintenance_logs_technician_status
+    @Query(LOG_VIEW + "where l.technician.id = :technicianId and l.status = :status and l.logDate between :from and :to order by l.logDate")
+    List<LogView> findViewsByTechnicianIdAndStatusAndLogDateBetween(@Param("technicianId") Long technicianId,
+                                                                    @Param("status") MaintenanceStatus status,
+                                                                    @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Served by idx_maintenance_logs_status_date
+    @Query(LOG_VIEW + "where l.status = :status and l.logDate between :from and :to order by l.logDate")
+    List<LogView> findViewsByStatusAndLogDateBetween(@Param("status") MaintenanceStatus status,
+                                                     @Param("from") LocalDate from, @Param("to") LocalDate to);
 
     Optional<MaintenanceLog> findTopByMachineOrderByLogDateDesc(Machine machine);
 
+    Optional<MaintenanceLog> findTopByMachineIdAndStatusOrderByLogDateDescIdDesc(Long machineId, MaintenanceStatus status);
+
     List<MaintenanceLog> findByTechnician(User technician);
 
-    List<MaintenanceLog> findByTechnicianAndStatus(User technician, MaintenanceLogStatus status);
+    List<MaintenanceLog> findByTechnicianAndStatus(User technician, MaintenanceStatus status);
 
     List<MaintenanceLog> findByMachineId(Long machineId);
+
+    @Query(LOG_VIEW + "where l.id = :id")
+    Optional<LogView> findViewById(@Param("id") Long id);
+
+    @Query(LOG_VIEW + "where l.machine.id = :machineId")
+    List<LogView> findViewsByMachineId(@Param("machineId") Long machineId);
+
+    // Logs written by the transactions numbered after..upTo, for the sync feed; walks idx_maintenance_logs_change_seq.
+    @Query(LOG_VIEW + "where l.changeSeq > :after and l.changeSeq <= :upTo order by l.id")
+    List<LogView> findViewsChangedBetween(@Param("after") long after, @Param("upTo") long upTo);
+
+    @Query(LOG_VIEW + "where l.clientRef = :clientRef")
+    Optional<LogView> findViewByClientRef(@Param("clientRef") String clientRef);
+
+    // Keyset page over the filtered logs, in id order.
+    @Query(LOG_VIEW + "where l.id > :afterId and " + LOG_FILTER + " order by l.id")
+    List<LogView> findFilteredPage(@Param("afterId") Long afterId,
+                                          @Param("machineId") Long machineId,
+                                          @Param("status") MaintenanceStatus status,
+                                          @Param("technicianId") Long technicianId,
+                                          @Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate,
+                                          Limit limit);
+
+    // Forward-only cursor over the filtered logs; must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(LOG_VIEW + "where " + LOG_FILTER + " order by l.id")
+    Stream<LogView> streamFiltered(@Param("machineId") Long machineId,
+                                          @Param("status") MaintenanceStatus status,
+                                          @Param("technicianId") Long technicianId,
+                                          @Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate);
+
+    /**
+     * Moves a log to {@code newStatus} only if its current status is one of {@code allowedFrom}.
+     * @return 1 if the transition was applied, 0 if the log is missing or its status did not allow it.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update MaintenanceLog l set l.status = :newStatus, l.version = l.version + 1, l.changeSeq = :changeSeq " +
+            "where l.id = :id and l.status in :allowedFrom")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("newStatus") MaintenanceStatus newStatus,
+                            @Param("allowedFrom") Collection<MaintenanceStatus> allowedFrom,
+                            @Param("changeSeq") long changeSeq);
+
+    /**
+     * Set-based form of {@link #compareAndSetStatus}; only rows whose status is in {@code allowedFrom} change.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update MaintenanceLog l set l.status = :newStatus, l.version = l.version + 1, l.changeSeq = :changeSeq " +
+            "where l.id in :ids and l.status in :allowedFrom")
+    int compareAndSetStatusIn(@Param("ids") Collection<Long> ids,
+                              @Param("newStatus") MaintenanceStatus newStatus,
+                              @Param("allowedFrom") Collection<MaintenanceStatus> allowedFrom,
+                              @Param("changeSeq") long changeSeq);
+
+    // Row-locks the selected logs until the surrounding transaction ends.
+    @Query(value = "select id, status from maintenance_logs where id in (:ids) for update", nativeQuery = true)
+    List<LogStatusView> lockStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select l.version from MaintenanceLog l where l.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Collection ETag of one machine's logs; served by idx_maintenance_logs_machine_date.
+    @Query("select new com.cropmaint.repository.MachineRepository$CollectionVersion(count(l), coalesce(max(l.id), 0L), " +
+            "coalesce(sum(l.id), 0L), coalesce(sum(l.version), 0L)) from MaintenanceLog l where l.machine.id = :machineId")
+    MachineRepository.CollectionVersion findCollectionVersionByMachineId(@Param("machineId") Long machineId);
+
+    @Query("select l.status from MaintenanceLog l where l.id = :id")
+    Optional<MaintenanceStatus> findStatusById(@Param("id") Long id);
+
+    // Served by idx_maintenance_logs_status_date
+    @Query("""
+            select l.id as id, l.logDate as logDate, m.id as machineId, m.criticalityLevel as criticalityLevel,
+                   l.technician.id as technicianId
+            from MaintenanceLog l join l.machine m
+            where l.status = :status""")
+    List<WorkQueueJobView> findWorkQueueJobsByStatus(@Param("status") MaintenanceStatus status);
+
+    @Query("""
+            select l.id as id, l.logDate as logDate, m.id as machineId, m.criticalityLevel as criticalityLevel,
+                   l.technician.id as technicianId
+            from MaintenanceLog l join l.machine m
+            where l.id = :id and l.status = :status""")
+    Optional<WorkQueueJobView> findWorkQueueJobById(@Param("id") Long id, @Param("status") MaintenanceStatus status);
+
+    @Query("""
+            select l.id as id, l.logDate as logDate, m.id as machineId, m.criticalityLevel as criticalityLevel,
+                   l.technician.id as technicianId
+            from MaintenanceLog l join l.machine m
+            where l.id in :ids and l.status = :status""")
+    List<WorkQueueJobView> findWorkQueueJobsByIdIn(@Param("ids") Collection<Long> ids, @Param("status") MaintenanceStatus status);
+
+    /**
+     * Moves a PENDING log that is unassigned or already assigned to {@code technician} to IN_PROGRESS
+     * and assigns it. A result of 0 means the log was claimed, changed or removed by someone else.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update MaintenanceLog l set l.status = :inProgress, l.technician = :technician, l.version = l.version + 1, l.changeSeq = :changeSeq
+            where l.id = :id and l.status = :pending and (l.technician is null or l.technician = :technician)""")
+    int claim(@Param("id") Long id,
+              @Param("technician") User technician,
+              @Param("pending") MaintenanceStatus pending,
+              @Param("inProgress") MaintenanceStatus inProgress,
+              @Param("changeSeq") long changeSeq);
+
+    @Query("""
+            select l.id as id, l.logDate as dueDate, m.location as location, m.criticalityLevel as criticalityLevel
+            from MaintenanceLog l join l.machine m
+            where l.status = :status and l.technician is null""")
+    List<AssignableJobView> findUnassignedJobsByStatus(@Param("status") MaintenanceStatus status);
+
+    // Served by idx_maintenance_logs_technician_status
+    @Query("""
+            select l.technician.id as technicianId, m.location as location, count(l) as total
+            from MaintenanceLog l join l.machine m
+            where l.technician is not null and l.status in :statuses
+            group by l.technician.id, m.location""")
+    List<TechnicianLocationLoadView> countJobsByTechnicianAndLocation(@Param("statuses") Collection<MaintenanceStatus> statuses);
 }
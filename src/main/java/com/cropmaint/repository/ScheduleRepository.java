@@ -3,16 +3,68 @@ package com.cropmaint.repository;
 import com.cropmaint.entity.Schedule;
 import com.cropmaint.entity.Machine;
 import com.cropmaint.entity.User;
+import com.cropmaint.enums.FrequencyType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
 
+    /**
+     * Id and due date of a schedule; all the schedule engine keeps in memory.
+     */
+    interface DueDateView {
+        Long getId();
+        LocalDate getDueDate();
+    }
+
+    /**
+     * The columns needed to roll a schedule forward and write the log for the occurrence.
+     */
+    interface OccurrenceView {
+        Long getId();
+        LocalDate getDueDate();
+        LocalDate getSeriesStart();
+        Integer getFrequencyDays();
+        FrequencyType getFrequencyType();
+        String getDescription();
+        Long getMachineId();
+        Long getTechnicianId();
+    }
+
+    /**
+     * A schedule's recurrence and the machine details shown on the maintenance calendar.
+     */
+    interface CalendarView {
+        Long getId();
+        LocalDate getDueDate();
+        LocalDate getSeriesStart();
+        Integer getFrequencyDays();
+        FrequencyType getFrequencyType();
+        String getDescription();
+        Long getMachineId();
+        String getLocation();
+        Long getTechnicianId();
+    }
+
+    /**
+     * A schedule as the sync feed returns it, constructed straight from the columns.
+     */
+    record ScheduleView(Long id, String description, LocalDate dueDate, Integer frequencyDays,
+                        FrequencyType frequencyType, LocalDate lastPerformedDate, Boolean active,
+                        Long machineId, Long technicianId, Long version) {
+    }
+
     List<Schedule> findByMachine(Machine machine);
 
     List<Schedule> findByActive(Boolean active);
@@ -26,4 +78,71 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
     List<Schedule> findByAssignedTechnician(User assignedTechnician);
 
     List<Schedule> findByAssignedTechnicianAndActiveTrue(User assignedTechnician);
-}
\ No newline at end of file
+
+    // Served from idx_schedule_active_due without touching the table rows.
+    @Query("select s.id as id, s.maintenanceDueDate as dueDate from Schedule s where s.active = true")
+    List<DueDateView> findActiveDueDates();
+
+    @Query("""
+            select s.id as id, s.maintenanceDueDate as dueDate, coalesce(s.seriesStart, s.maintenanceDueDate) as seriesStart,
+                   s.frequencyDays as frequencyDays, s.frequencyType as frequencyType, s.maintenanceTaskDescription as description,
+                   s.machine.id as machineId, s.assignedTechnician.id as technicianId
+            from Schedule s
+            where s.id = :id and s.active = true""")
+    Optional<OccurrenceView> findActiveOccurrenceById(@Param("id") Long id);
+
+    /**
+     * Keyset page over overdue active schedules in (due date, id) order, starting after the given
+     * position; a null {@code afterDueDate} starts from the beginning. Walks idx_schedule_active_due.
+     */
+    @Query("""
+            select s.id as id, s.maintenanceDueDate as dueDate from Schedule s
+            where s.active = true and s.maintenanceDueDate <= :asOf
+              and (:afterDueDate is null or s.maintenanceDueDate > :afterDueDate
+                   or (s.maintenanceDueDate = :afterDueDate and s.id > :afterId))
+            order by s.maintenanceDueDate, s.id""")
+    List<DueDateView> findOverdueAfter(@Param("asOf") LocalDate asOf,
+                                       @Param("afterDueDate") LocalDate afterDueDate,
+                                       @Param("afterId") Long afterId,
+                                       Limit limit);
+
+    // Row-locks the selected schedules that are still active and overdue until the surrounding transaction ends.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select s.id as id, s.maintenanceDueDate as dueDate, coalesce(s.seriesStart, s.maintenanceDueDate) as seriesStart,
+                   s.frequencyDays as frequencyDays, s.frequencyType as frequencyType, s.maintenanceTaskDescription as description,
+                   s.machine.id as machineId, s.assignedTechnician.id as technicianId
+            from Schedule s
+            where s.id in :ids and s.active = true and s.maintenanceDueDate <= :asOf""")
+    List<OccurrenceView> lockOverdueByIdIn(@Param("ids") Collection<Long> ids, @Param("asOf") LocalDate asOf);
+
+    @Query("""
+            select s.id as id, s.maintenanceDueDate as dueDate, coalesce(s.seriesStart, s.maintenanceDueDate) as seriesStart,
+                   s.frequencyDays as frequencyDays, s.frequencyType as frequencyType, s.maintenanceTaskDescription as description,
+                   m.id as machineId, m.location as location, s.assignedTechnician.id as technicianId
+            from Schedule s join s.machine m
+            where s.active = true and s.maintenanceDueDate <= :to
+              and (:machineId is null or m.id = :machineId)
+              and (:technicianId is null or s.assignedTechnician.id = :technicianId)
+              and (:location is null or m.location = :location)""")
+    List<CalendarView> findActiveForCalendar(@Param("to") LocalDate to,
+                                             @Param("machineId") Long machineId,
+                                             @Param("technicianId") Long technicianId,
+                                             @Param("location") String location);
+
+    @Query("""
+            select s.id as id, s.maintenanceDueDate as dueDate, m.location as location, m.criticalityLevel as criticalityLevel
+            from Schedule s join s.machine m
+            where s.active = true and s.maintenanceDueDate <= :asOf and s.assignedTechnician is null""")
+    List<MaintenanceLogRepository.AssignableJobView> findUnassignedDue(@Param("asOf") LocalDate asOf);
+
+    // Schedules written by the transactions numbered after..upTo, for the sync feed; walks idx_schedule_change_seq.
+    @Query("""
+            select new com.cropmaint.repository.ScheduleRepository$ScheduleView(s.id, s.maintenanceTaskDescription,
+                   s.maintenanceDueDate, s.frequencyDays, s.frequencyType, s.lastPerformedDate, s.active,
+                   s.machine.id, s.assignedTechnician.id, s.version)
+            from Schedule s
+            where s.changeSeq > :after and s.changeSeq <= :upTo
+            order by s.id""")
+    List<ScheduleView> findViewsChangedBetween(@Param("after") long after, @Param("upTo") long upTo);
+}
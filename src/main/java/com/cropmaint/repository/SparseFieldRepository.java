@@ -0,0 +1,172 @@
+package com.cropmaint.repository;
+
+import com.cropmaint.model.MaintenanceStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Map.entry;
+
+/**
+ * List queries for the fields= parameter: only the requested fields are selected, and each row
+ * comes back as a map of exactly those fields in the order they were asked for.
+ * Field names are the JSON property names of the matching response DTO; each maps to a fixed JPQL
+ * path here, so nothing from the request is ever spliced into a query unchecked.
+ */
+@Repository
+public class SparseFieldRepository {
+
+    public enum Projection {
+        MACHINE("Machine e", Map.ofEntries(
+                entry("id", "e.id"),
+                entry("name", "e.name"),
+                entry("machineCode", "e.machineCode"),
+                entry("location", "e.location"),
+                entry("installDate", "e.installDate"),
+                entry("status", "e.status"),
+                entry("machineType", "e.machineType"),
+                entry("manufacturer", "e.manufacturer"),
+                entry("modelNumber", "e.modelNumber"),
+                entry("serialNumber", "e.serialNumber"),
+                entry("criticalityLevel", "e.criticalityLevel"),
+                entry("lastMaintenanceLogId", "e.lastMaintenance.logId"),
+                entry("lastMaintenanceDate", "e.lastMaintenance.date"),
+                entry("lastMaintenancePerformedBy", "e.lastMaintenance.performedBy"),
+                entry("lastMaintenanceCost", "e.lastMaintenance.cost"),
+                entry("version", "e.version"))),
+        MAINTENANCE_LOG("MaintenanceLog e", Map.ofEntries(
+                entry("id", "e.id"),
+                entry("logDate", "e.logDate"),
+                entry("description", "e.description"),
+                entry("performedBy", "e.performedBy"),
+                entry("cost", "e.cost"),
+                entry("machineId", "e.machine.id"),
+                entry("status", "e.status"),
+                entry("technicianId", "e.technician.id"),
+                entry("version", "e.version"))),
+        USER("User e", Map.ofEntries(
+                entry("id", "e.id"),
+                entry("username", "e.username"),
+                entry("email", "e.email"),
+                entry("role", "e.role")));
+
+        private final String from;
+        private final Map<String, String> paths;
+
+        Projection(String from, Map<String, String> paths) {
+            this.from = from;
+            this.paths = paths;
+        }
+
+        public Set<String> fields() {
+            return paths.keySet();
+        }
+    }
+
+    /**
+     * One keyset page: the rows, the id of the last one, and whether more follow it.
+     */
+    public record Page(List<Map<String, Object>> rows, Long lastId, boolean hasMore) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param fields Names from {@link Projection#fields()}, without duplicates.
+     * @return Every row, in id order.
+     */
+    public List<Map<String, Object>> findAll(Projection projection, List<String> fields) {
+        return list(query(projection, fields, "", Map.of()).getResultList(), fields, 0);
+    }
+
+    /**
+     * A keyset page of maintenance logs; every filter argument may be null, and only the ones set
+     * are added to the query.
+     * @param fields Names from {@link Projection#fields()}, without duplicates.
+     * @return Up to {@code limit} matching logs with an id above {@code afterId}, in id order. The id is
+     *         always selected for the cursor but only appears in the rows when asked for.
+     */
+    public Page findLogPage(List<String> fields, Long machineId, MaintenanceStatus status, Long technicianId,
+                            LocalDate from, LocalDate to, long afterId, int limit) {
+        StringBuilder where = new StringBuilder("where e.id > :afterId ");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("afterId", afterId);
+        if (machineId != null) {
+            where.append("and e.machine.id = :machineId ");
+            parameters.put("machineId", machineId);
+        }
+        if (status != null) {
+            where.append("and e.status = :status ");
+            parameters.put("status", status);
+        }
+        if (technicianId != null) {
+            where.append("and e.technician.id = :technicianId ");
+            parameters.put("technicianId", technicianId);
+        }
+        if (from != null) {
+            where.append("and e.logDate >= :fromDate ");
+            parameters.put("fromDate", from);
+        }
+        if (to != null) {
+            where.append("and e.logDate <= :toDate ");
+            parameters.put("toDate", to);
+        }
+
+        List<String> withId = new ArrayList<>(fields.size() + 1);
+        withId.add("id");
+        withId.addAll(fields);
+        List<Tuple> tuples = query(Projection.MAINTENANCE_LOG, withId, where.toString(), parameters)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        boolean hasMore = tuples.size() > limit;
+        List<Tuple> page = hasMore ? tuples.subList(0, limit) : tuples;
+        Long lastId = page.isEmpty() ? null : page.get(page.size() - 1).get(0, Long.class);
+        return new Page(list(page, fields, 1), lastId, hasMore);
+    }
+
+    public List<Map<String, Object>> findLogsByMachineId(List<String> fields, Long machineId) {
+        return list(query(Projection.MAINTENANCE_LOG, fields, "where e.machine.id = :machineId ", Map.of("machineId", machineId))
+                .getResultList(), fields, 0);
+    }
+
+    private TypedQuery<Tuple> query(Projection projection, List<String> fields, String where, Map<String, Object> parameters) {
+        String select = fields.stream()
+                .map(field -> {
+                    String path = projection.paths.get(field);
+                    if (path == null) {
+                        throw new IllegalArgumentException("Unknown " + projection + " field: " + field);
+                    }
+                    return path;
+                })
+                .collect(Collectors.joining(", "));
+        TypedQuery<Tuple> query = entityManager.createQuery(
+                "select " + select + " from " + projection.from + " " + where + "order by e.id", Tuple.class);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+
+    // The first offset tuple elements were selected for the caller, not the client.
+    private static List<Map<String, Object>> list(List<Tuple> tuples, List<String> fields, int offset) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(offset + i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
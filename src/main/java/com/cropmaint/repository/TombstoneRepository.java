@@ -0,0 +1,30 @@
+package com.cropmaint.repository;
+
+import com.cropmaint.entity.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    /**
+     * A deleted row as the sync feed reports it.
+     */
+    record TombstoneView(Tombstone.EntityType entityType, Long entityId) {
+    }
+
+    // Deletes made by the transactions numbered after..upTo; walks idx_tombstones_change_seq.
+    @Query("select new com.cropmaint.repository.TombstoneRepository$TombstoneView(t.entityType, t.entityId) " +
+            "from Tombstone t where t.changeSeq > :after and t.changeSeq <= :upTo order by t.changeSeq")
+    List<TombstoneView> findViewsChangedBetween(@Param("after") long after, @Param("upTo") long upTo);
+
+    @Modifying
+    @Query("delete from Tombstone t where t.deletedAt < :before")
+    int deleteByDeletedAtBefore(@Param("before") LocalDateTime before);
+}
@@ -2,17 +2,39 @@ package com.cropmaint.repository;
 
 import com.cropmaint.entity.User;
 import com.cropmaint.enums.UserRole;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * A user as the read endpoints return it; never carries the password hash.
+     */
+    record UserView(Long id, String username, String email, String role) {
+    }
+
     Optional<User> findByEmail(String email);
+    // Cached query: the result id is resolved from the users region until the table is next written.
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
     List<User> findByRole(UserRole role);
+
+    @Query("select new com.cropmaint.repository.UserRepository$UserView(u.id, u.username, u.email, u.role) from User u order by u.id")
+    List<UserView> findAllViews();
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // role is stored as free text, so match it case-insensitively.
+    @Query("select u.id from User u where upper(u.role) = upper(:role)")
+    List<Long> findIdsByRole(@Param("role") String role);
 }
\ No newline at end of file
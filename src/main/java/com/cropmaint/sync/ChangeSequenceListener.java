@@ -0,0 +1,44 @@
+package com.cropmaint.sync;
+
+import com.cropmaint.entity.ChangeTracked;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Stamps machines, logs and schedules with the change number of the transaction writing them, and
+ * records a tombstone when one is deleted (cascaded deletes included).
+ * Instantiated by Hibernate through Spring's bean container. Bulk JPQL and JDBC updates skip entity
+ * callbacks, so those set change_seq themselves.
+ */
+public class ChangeSequenceListener {
+
+    private static final String INSERT_TOMBSTONE_SQL =
+            "insert into tombstones (entity_type, entity_id, change_seq, deleted_at) values (?, ?, ?, ?)";
+
+    private final SyncSequence syncSequence;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangeSequenceListener(SyncSequence syncSequence, JdbcTemplate jdbcTemplate) {
+        this.syncSequence = syncSequence;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void stamp(Object entity) {
+        ((ChangeTracked) entity).setChangeSeq(syncSequence.current());
+    }
+
+    // Plain JDBC on the transaction's connection: the persistence context cannot take new entities mid-flush.
+    @PostRemove
+    void recordTombstone(Object entity) {
+        ChangeTracked removed = (ChangeTracked) entity;
+        jdbcTemplate.update(INSERT_TOMBSTONE_SQL, removed.syncEntityType().name(), removed.getId(),
+                syncSequence.current(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,160 @@
+package com.cropmaint.sync;
+
+import com.cropmaint.entity.SyncCheckpoint;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out change numbers for the sync feed. Every row a transaction inserts, updates or deletes is
+ * stamped with that transaction's number, allocated on its first write.
+ *
+ * Numbers are allocated in order but transactions commit in any order, so a reader must not read up
+ * to the highest number handed out: a transaction holding a lower one may still commit. The
+ * {@link #watermark()} is the highest number below every transaction still in flight, so every change
+ * up to it is committed and no later commit can land under it.
+ *
+ * The counter is kept in memory, so like the machine registry this assumes a single application
+ * instance writes to the database. It is seeded on first use from the highest stamped change_seq and
+ * from sync_checkpoint, which records (a block ahead) every watermark put in a token: numbers handed
+ * out but never committed, by a rollback say, are then never handed out again after a restart.
+ */
+@Component
+public class SyncSequence {
+
+    private static final String[] TABLES = {"machines", "maintenance_logs", "schedule", "tombstones"};
+    // How far past an issued watermark the checkpoint is moved, so only one token in this many writes it.
+    private static final long CHECKPOINT_BLOCK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+    // Highest value known to be in sync_checkpoint; -1 until read.
+    private final AtomicLong checkpoint = new AtomicLong(-1);
+
+    // A lock rather than synchronized: the first caller seeds the counter with JDBC, which would pin a virtual thread.
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock.
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    private long last = -1;
+
+    // The transaction manager is looked up on first use: it depends on the entity manager factory, which needs this bean for its listener.
+    public SyncSequence(JdbcTemplate jdbcTemplate, ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+    }
+
+    /**
+     * @return The change number of the current transaction, allocated on the first call and released
+     * once the transaction completes. Outside a transaction every call gets a fresh number.
+     */
+    public long current() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return allocate(false);
+        }
+        Long bound = (Long) TransactionSynchronizationManager.getResource(this);
+        if (bound != null) {
+            return bound;
+        }
+        long changeSeq = allocate(true);
+        TransactionSynchronizationManager.bindResource(this, changeSeq);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SyncSequence.this);
+                release(changeSeq);
+            }
+        });
+        return changeSeq;
+    }
+
+    /**
+     * @return The highest change number whose changes are all committed.
+     */
+    public long watermark() {
+        lock.lock();
+        try {
+            seedIfNeeded();
+            return inFlight.isEmpty() ? last : inFlight.first() - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The {@link #watermark()}, made durable first so it can safely be put in a sync token.
+     */
+    public long issueWatermark() {
+        long watermark = watermark();
+        if (watermark > checkpoint.get()) {
+            long upTo = watermark + CHECKPOINT_BLOCK;
+            saveCheckpoint(upTo);
+            checkpoint.accumulateAndGet(upTo, Math::max);
+        }
+        return watermark;
+    }
+
+    private void saveCheckpoint(long upTo) {
+        String advance = "update sync_checkpoint set issued_up_to = ? where id = ? and issued_up_to < ?";
+        // Committed on its own, even when called inside a transaction that later rolls back.
+        TransactionTemplate checkpointTransaction = new TransactionTemplate(transactionManager.getObject());
+        checkpointTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (checkpointTransaction.execute(status -> jdbcTemplate.update(advance, upTo, SyncCheckpoint.ID, upTo)) > 0) {
+            return;
+        }
+        try {
+            checkpointTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "insert into sync_checkpoint (id, issued_up_to) values (?, ?)", SyncCheckpoint.ID, upTo));
+        } catch (DuplicateKeyException e) {
+            // The row exists, already at or past upTo, or was just created by a concurrent caller below it.
+            checkpointTransaction.executeWithoutResult(status -> jdbcTemplate.update(advance, upTo, SyncCheckpoint.ID, upTo));
+        }
+    }
+
+    private long allocate(boolean track) {
+        lock.lock();
+        try {
+            seedIfNeeded();
+            long changeSeq = ++last;
+            if (track) {
+                inFlight.add(changeSeq);
+            }
+            return changeSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long changeSeq) {
+        lock.lock();
+        try {
+            inFlight.remove(changeSeq);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void seedIfNeeded() {
+        if (last >= 0) {
+            return;
+        }
+        long max = 0;
+        for (String table : TABLES) {
+            Long tableMax = jdbcTemplate.queryForObject("select max(change_seq) from " + table, Long.class);
+            max = Math.max(max, tableMax != null ? tableMax : 0);
+        }
+        Long issued = jdbcTemplate.queryForObject("select max(issued_up_to) from sync_checkpoint", Long.class);
+        checkpoint.accumulateAndGet(issued != null ? issued : 0, Math::max);
+        last = Math.max(max, checkpoint.get());
+    }
+}
@@ -0,0 +1,76 @@
+package com.cropmaint.cache;
+
+import com.cropmaint.entity.Machine;
+import com.cropmaint.repository.MachineRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MachineRegistryCacheTests {
+
+	private final MachineRepository machineRepository = mock(MachineRepository.class);
+	private final MachineRegistryCache registry = new MachineRegistryCache(machineRepository, 2, Duration.ofMinutes(30));
+
+	@Test
+	void loadIsCachedUntilEvicted() {
+		when(machineRepository.findById(1L)).thenReturn(Optional.of(machine(1L, "HV-1")));
+
+		assertThat(registry.findById(1L)).isPresent();
+		assertThat(registry.findByMachineCode("HV-1")).isPresent();
+		verify(machineRepository, times(1)).findById(1L);
+		assertThat(registry.stats().hits()).isEqualTo(1);
+	}
+
+	@Test
+	void loadRacingADeleteIsNotCached() {
+		// The machine is deleted after the load read it.
+		when(machineRepository.findById(1L)).thenAnswer(invocation -> {
+			registry.evict(1L);
+			return Optional.of(machine(1L, "HV-1"));
+		});
+
+		assertThat(registry.findById(1L)).isPresent();
+		assertThat(registry.stats().size()).isZero();
+	}
+
+	@Test
+	void loadRacingASaveKeepsTheSavedEntry() {
+		when(machineRepository.findByMachineCode("HV-1")).thenAnswer(invocation -> {
+			registry.put(machine(1L, "HV-2"));
+			return Optional.of(machine(1L, "HV-1"));
+		});
+
+		registry.findByMachineCode("HV-1");
+
+		assertThat(registry.findById(1L)).get().extracting(MachineRegistryCache.Entry::machineCode).isEqualTo("HV-2");
+	}
+
+	@Test
+	void loadIsNotCachedWhenItsChangeWasPruned() {
+		when(machineRepository.findById(1L)).thenAnswer(invocation -> {
+			registry.evict(1L);
+			// Pushes the change of machine 1 out of the bounded change log.
+			registry.evict(2L);
+			registry.evict(3L);
+			return Optional.of(machine(1L, "HV-1"));
+		});
+
+		registry.findById(1L);
+
+		assertThat(registry.stats().size()).isZero();
+	}
+
+	private static Machine machine(Long id, String machineCode) {
+		Machine machine = new Machine();
+		machine.setId(id);
+		machine.setMachineCode(machineCode);
+		return machine;
+	}
+}
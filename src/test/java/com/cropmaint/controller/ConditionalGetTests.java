@@ -0,0 +1,133 @@
+package com.cropmaint.controller;
+
+import com.cropmaint.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static com.cropmaint.support.StatementCountMatchers.statements;
+import static com.cropmaint.support.StatementCountMatchers.statementsAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETags follow the entity versions, and a matching If-None-Match is answered with 304 before any row is mapped.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Import(TestData.class)
+class ConditionalGetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TestData testData;
+
+	@BeforeEach
+	void seed() {
+		testData.reset();
+		testData.machine(1, "Harvester", "HV-1").with("location", "North").insert();
+		for (int i = 1; i <= 3; i++) {
+			testData.log(i, 1, LocalDate.of(2024, 3, i)).insert();
+		}
+	}
+
+	@Test
+	void unchangedMachineIsNotModified() throws Exception {
+		String etag = etagOf("/api/machines/1");
+
+		mockMvc.perform(get("/api/machines/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(content().string(""))
+				.andExpect(statementsAtMost(1));
+	}
+
+	@Test
+	void updatedMachineGetsNewTag() throws Exception {
+		String etag = etagOf("/api/machines/1");
+
+		mockMvc.perform(put("/api/machines/1").header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Harvester 2\",\"machineCode\":\"HV-1\",\"status\":\"OPERATIONAL\"}"))
+				.andExpect(status().isOk());
+
+		String newEtag = mockMvc.perform(get("/api/machines/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(newEtag).isNotEqualTo(etag);
+	}
+
+	@Test
+	void unchangedLogListIsNotModifiedAfterOneQuery() throws Exception {
+		String etag = etagOf("/api/maintenance-logs?machineId=1");
+
+		mockMvc.perform(get("/api/maintenance-logs").param("machineId", "1").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""))
+				.andExpect(statements(1));
+	}
+
+	@Test
+	void bulkStatusUpdateChangesListAndLogTags() throws Exception {
+		String listEtag = etagOf("/api/maintenance-logs?machineId=1");
+		String logEtag = etagOf("/api/maintenance-logs/2");
+
+		mockMvc.perform(put("/api/maintenance-logs/2/status").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"status\":\"IN_PROGRESS\"}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/maintenance-logs").param("machineId", "1").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/maintenance-logs/2").header(HttpHeaders.IF_NONE_MATCH, logEtag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void newLogChangesListTag() throws Exception {
+		String etag = etagOf("/api/maintenance-logs?machineId=1");
+
+		testData.log(4, 1, LocalDate.of(2024, 3, 4)).with("description", "Belt").insert();
+
+		mockMvc.perform(get("/api/maintenance-logs").param("machineId", "1").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void logPageIsTaggedFromItsRows() throws Exception {
+		String etag = etagOf("/api/maintenance-logs?limit=3");
+
+		mockMvc.perform(get("/api/maintenance-logs").param("limit", "3").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(statements(1));
+
+		// Past the end of the page, but the page now has more after it.
+		testData.log(4, 1, LocalDate.of(2024, 3, 4)).insert();
+
+		mockMvc.perform(get("/api/maintenance-logs").param("limit", "3").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+
+	private String etagOf(String uri) throws Exception {
+		String etag = mockMvc.perform(get(uri))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotBlank();
+		return etag;
+	}
+
+}
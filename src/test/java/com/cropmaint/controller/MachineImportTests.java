@@ -0,0 +1,62 @@
+package com.cropmaint.controller;
+
+import com.cropmaint.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A row the database refuses fails on its own; the rest of its chunk is still imported.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Import(TestData.class)
+class MachineImportTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	@BeforeEach
+	void seed() {
+		testData.reset();
+	}
+
+	@Test
+	void rowRefusedByTheDatabaseDoesNotRejectItsChunk() throws Exception {
+		// Passes the import's own checks but is longer than the name column.
+		String csv = "name,machineCode\n" +
+				"Harvester,IMP-1\n" +
+				"X".repeat(300) + ",IMP-2\n" +
+				"Tractor,IMP-3\n";
+
+		mockMvc.perform(post("/api/machines/import").contentType("text/csv").content(csv))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalRows").value(3))
+				.andExpect(jsonPath("$.importedRows").value(2))
+				.andExpect(jsonPath("$.failedRows").value(1))
+				.andExpect(jsonPath("$.errors", hasSize(1)))
+				.andExpect(jsonPath("$.errors[0].row").value(3))
+				.andExpect(jsonPath("$.errors[0].machineCode").value("IMP-2"));
+		assertThat(jdbcTemplate.queryForList("select machine_code from machines order by machine_code", String.class))
+				.containsExactly("IMP-1", "IMP-3");
+	}
+}
@@ -0,0 +1,193 @@
+package com.cropmaint.controller;
+
+import com.cropmaint.concurrency.OptimisticRetry;
+import com.cropmaint.entity.Machine;
+import com.cropmaint.exception.PreconditionRequiredException;
+import com.cropmaint.exception.VersionConflictException;
+import com.cropmaint.support.TestData;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Edits made against a stale If-Match get 409, while writes that only refresh the last-maintenance snapshot
+ * do not invalidate it; only server-side conflicts are retried.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Import(TestData.class)
+class OptimisticLockingTests {
+
+	private static final String MACHINE_JSON = "{\"name\":\"Harvester 2\",\"machineCode\":\"HV-1\",\"status\":\"OPERATIONAL\"}";
+	private static final String LOG_JSON = "{\"logDate\":\"2024-03-01\",\"description\":\"Belt\",\"performedBy\":\"tech1\",\"machineId\":1,\"status\":\"PENDING\"}";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private OptimisticRetry optimisticRetry;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void seed() {
+		testData.reset();
+		testData.machine(1, "Harvester", "HV-1").with("version", 4).with("edited_version", 4).insert();
+		testData.log(1, 1, LocalDate.of(2024, 3, 1)).with("version", 2).insert();
+	}
+
+	@Test
+	void machineEditAgainstCurrentVersionSucceeds() throws Exception {
+		mockMvc.perform(put("/api/machines/1").header(HttpHeaders.IF_MATCH, "\"4\"")
+						.contentType(MediaType.APPLICATION_JSON).content(MACHINE_JSON))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"5\""))
+				.andExpect(jsonPath("$.version").value(5));
+	}
+
+	@Test
+	void machineEditAgainstStaleVersionIsConflict() throws Exception {
+		double rejected = conflicts("Machine", "rejected");
+
+		mockMvc.perform(put("/api/machines/1").header(HttpHeaders.IF_MATCH, "\"3\"")
+						.contentType(MediaType.APPLICATION_JSON).content(MACHINE_JSON))
+				.andExpect(status().isConflict());
+
+		assertThat(jdbcTemplate.queryForObject("select name from machines where id = 1", String.class)).isEqualTo("Harvester");
+		assertThat(conflicts("Machine", "rejected")).isEqualTo(rejected + 1);
+	}
+
+	@Test
+	void logEditAgainstStaleVersionIsConflict() throws Exception {
+		mockMvc.perform(put("/api/maintenance-logs/1").header(HttpHeaders.IF_MATCH, "\"1\"")
+						.contentType(MediaType.APPLICATION_JSON).content(LOG_JSON))
+				.andExpect(status().isConflict());
+
+		mockMvc.perform(put("/api/maintenance-logs/1").header(HttpHeaders.IF_MATCH, "\"2\"")
+						.contentType(MediaType.APPLICATION_JSON).content(LOG_JSON))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+	}
+
+	@Test
+	void editWithoutIfMatchIsApplied() throws Exception {
+		mockMvc.perform(put("/api/machines/1").contentType(MediaType.APPLICATION_JSON).content(MACHINE_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.version").value(5));
+		mockMvc.perform(put("/api/maintenance-logs/1").header(HttpHeaders.IF_MATCH, "*")
+						.contentType(MediaType.APPLICATION_JSON).content(LOG_JSON))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void missingIfMatchIsRefusedOnlyWhenRequired() {
+		assertThat(EntityTags.versionOf(null, false)).isNull();
+		assertThatThrownBy(() -> EntityTags.versionOf(null, true)).isInstanceOf(PreconditionRequiredException.class);
+		assertThatThrownBy(() -> EntityTags.versionOf("*", true)).isInstanceOf(PreconditionRequiredException.class);
+	}
+
+	@Test
+	void logCompletedBetweenReadAndEditDoesNotConflict() throws Exception {
+		String etag = mockMvc.perform(get("/api/machines/1"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		jdbcTemplate.update("update maintenance_logs set status = 'IN_PROGRESS' where id = 1");
+		mockMvc.perform(put("/api/maintenance-logs/1/status").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"status\":\"COMPLETED\"}"))
+				.andExpect(status().isOk());
+		assertThat(jdbcTemplate.queryForObject("select version from machines where id = 1", Long.class)).isGreaterThan(4);
+
+		mockMvc.perform(put("/api/machines/1").header(HttpHeaders.IF_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON).content(MACHINE_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Harvester 2"))
+				.andExpect(jsonPath("$.lastMaintenanceLogId").value(1));
+
+		// The edit itself still invalidates the tag it was made against.
+		mockMvc.perform(put("/api/machines/1").header(HttpHeaders.IF_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON).content(MACHINE_JSON))
+				.andExpect(status().isConflict());
+	}
+
+	@Test
+	void malformedIfMatchIsBadRequest() throws Exception {
+		mockMvc.perform(put("/api/machines/1").header(HttpHeaders.IF_MATCH, "W/\"4\"")
+						.contentType(MediaType.APPLICATION_JSON).content(MACHINE_JSON))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void serverSideConflictIsRetried() {
+		double retried = conflicts("Test", "retried");
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = optimisticRetry.execute("Test", true, () -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw new ObjectOptimisticLockingFailureException(Machine.class, 1L);
+			}
+			return "applied";
+		});
+
+		assertThat(result).isEqualTo("applied");
+		assertThat(attempts).hasValue(2);
+		assertThat(conflicts("Test", "retried")).isEqualTo(retried + 1);
+	}
+
+	@Test
+	void staleExpectedVersionIsNotRetried() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> optimisticRetry.execute("Test", true, () -> {
+			attempts.incrementAndGet();
+			throw new VersionConflictException("stale");
+		})).isInstanceOf(VersionConflictException.class);
+		assertThat(attempts).hasValue(1);
+	}
+
+	@Test
+	void persistentConflictEndsInVersionConflict() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> optimisticRetry.execute("Test", true, () -> {
+			attempts.incrementAndGet();
+			throw new ObjectOptimisticLockingFailureException(Machine.class, 1L);
+		})).isInstanceOf(VersionConflictException.class);
+		assertThat(attempts).hasValue(3);
+	}
+
+	private double conflicts(String entity, String outcome) {
+		var counter = meterRegistry.find("cropmaint.optimistic.lock.conflicts").tag("entity", entity).tag("outcome", outcome).counter();
+		return counter != null ? counter.count() : 0;
+	}
+
+}
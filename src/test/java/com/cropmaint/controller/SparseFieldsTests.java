@@ -0,0 +1,116 @@
+package com.cropmaint.controller;
+
+import com.cropmaint.metrics.RequestActivity;
+import com.cropmaint.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static com.cropmaint.support.StatementCountMatchers.statements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The fields= parameter narrows both the JSON and the SQL of the list endpoints.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Import(TestData.class)
+class SparseFieldsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TestData testData;
+
+	@BeforeEach
+	void seed() {
+		testData.reset();
+		testData.user(1);
+		testData.machine(1, "Harvester", "HV-1").with("location", "North").with("criticality_level", "HIGH").insert();
+		testData.log(1, 1, LocalDate.of(2024, 3, 1)).with("description", "Oil and filter change").with("technician_id", 1).with("status", "COMPLETED").insert();
+	}
+
+	@Test
+	void machinesReturnOnlyRequestedFields() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/machines").param("fields", "id,machineCode,status,criticalityLevel"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].*", contains(1, "HV-1", "OPERATIONAL", "HIGH")))
+				.andExpect(jsonPath("$[0].name").doesNotExist())
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG))
+				// Only the projection: the collection ETag aggregate runs only for If-None-Match.
+				.andExpect(statements(1))
+				.andReturn();
+		assertThat(sql(result)).doesNotContain("name", "serial_number");
+	}
+
+	@Test
+	void sparseLogsOfMachineAreTaggedWhenRevalidated() throws Exception {
+		String etag = mockMvc.perform(get("/api/maintenance-logs").param("machineId", "1").param("fields", "status")
+						.header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/maintenance-logs").param("machineId", "1").param("fields", "status")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(statements(1));
+	}
+
+	@Test
+	void logsOfMachineSkipDescription() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/maintenance-logs").param("machineId", "1").param("fields", "id,status,logDate"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].*", contains(1, "COMPLETED", "2024-03-01")))
+				.andReturn();
+		assertThat(sql(result)).doesNotContain("description");
+	}
+
+	@Test
+	void allLogsPageKeepsCursorWithoutId() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/maintenance-logs").param("fields", "status"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].*", contains("COMPLETED")))
+				.andExpect(jsonPath("$.nextCursor").value(1))
+				.andExpect(jsonPath("$.hasMore").value(false))
+				.andReturn();
+		assertThat(sql(result)).doesNotContain("description");
+	}
+
+	@Test
+	void usersReturnOnlyRequestedFields() throws Exception {
+		mockMvc.perform(get("/api/users").param("fields", "username"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].*", contains("tech1")));
+	}
+
+	@Test
+	void unknownFieldIsRejected() throws Exception {
+		mockMvc.perform(get("/api/machines").param("fields", "id,passwordHash"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message", containsString("passwordHash")));
+	}
+
+	private static String sql(MvcResult result) {
+		RequestActivity activity = (RequestActivity) result.getRequest().getAttribute(RequestActivity.ATTRIBUTE);
+		return String.join("\n", activity.getStatementSql()).toLowerCase();
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.cropmaint.controller;
+
+import com.cropmaint.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static com.cropmaint.support.StatementCountMatchers.statements;
+import static com.cropmaint.support.StatementCountMatchers.statementsAtMost;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the read endpoints against N+1 queries: every log below has its own machine and
+ * technician, so a lazy association resolved per row would add statements proportional to ROWS.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Import(TestData.class)
+class StatementCountTests {
+
+	private static final int ROWS = 20;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TestData testData;
+
+	@BeforeEach
+	void seed() {
+		// Rows are rewritten behind Hibernate's back, so start each test with cold caches
+		testData.reset();
+		for (int i = 1; i <= ROWS; i++) {
+			testData.user(i);
+			testData.machine(i, "Harvester " + i, "HV-" + i).with("location", "North").insert();
+		}
+		for (int i = 1; i <= ROWS; i++) {
+			testData.log(i, i % 2 == 0 ? 1 : i, LocalDate.of(2024, 1, 1).plusDays(i))
+					.with("technician_id", i).with("status", "COMPLETED").insert();
+		}
+	}
+
+	@Test
+	void logsOfMachine() throws Exception {
+		mockMvc.perform(get("/api/maintenance-logs").param("machineId", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(ROWS / 2 + 1))
+				.andExpect(statementsAtMost(2));
+	}
+
+	@Test
+	void allLogsArePaged() throws Exception {
+		mockMvc.perform(get("/api/maintenance-logs").param("after", "5").param("limit", "10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(10))
+				.andExpect(jsonPath("$.items[0].id").value(6))
+				.andExpect(jsonPath("$.nextCursor").value(15))
+				.andExpect(jsonPath("$.hasMore").value(true))
+				// The page alone: its tag comes from its own rows.
+				.andExpect(statements(1));
+	}
+
+	@Test
+	void allLogsPageAppliesTheFilter() throws Exception {
+		// Machine 1 has log 1 and every even log.
+		mockMvc.perform(get("/api/maintenance-logs").param("machineId", "1").param("limit", "3"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[*].id").value(contains(1, 2, 4)))
+				.andExpect(jsonPath("$.nextCursor").value(4))
+				.andExpect(statements(1));
+		mockMvc.perform(get("/api/maintenance-logs").param("technicianId", "3").param("status", "COMPLETED"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[*].id").value(contains(3)))
+				.andExpect(jsonPath("$.hasMore").value(false));
+	}
+
+	@Test
+	void statusTransitionLoadsNoEntity() throws Exception {
+		testData.log(100, 1, LocalDate.of(2024, 3, 1)).insert();
+
+		mockMvc.perform(put("/api/maintenance-logs/{id}/status", 100).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"status\":\"IN_PROGRESS\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("IN_PROGRESS"))
+				.andExpect(jsonPath("$.machineId").value(1))
+				// The conditional UPDATE, then the projection for the response.
+				.andExpect(statements(2));
+	}
+
+	@Test
+	void logsPage() throws Exception {
+		mockMvc.perform(get("/api/maintenance-logs/page").param("limit", "10"))
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(2));
+	}
+
+	@Test
+	void logsInDateRange() throws Exception {
+		mockMvc.perform(get("/api/maintenance-logs/range").param("from", "2024-01-01").param("to", "2024-12-31").param("machineId", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(ROWS / 2 + 1))
+				.andExpect(statementsAtMost(2));
+	}
+
+	@Test
+	void logById() throws Exception {
+		mockMvc.perform(get("/api/maintenance-logs/{id}", 3))
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(1));
+	}
+
+	@Test
+	void machines() throws Exception {
+		mockMvc.perform(get("/api/machines"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(ROWS))
+				.andExpect(statements(1));
+	}
+
+	@Test
+	void machineById() throws Exception {
+		mockMvc.perform(get("/api/machines/{id}", 1))
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(1));
+	}
+
+}
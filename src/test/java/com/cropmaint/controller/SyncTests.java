@@ -0,0 +1,142 @@
+package com.cropmaint.controller;
+
+import com.cropmaint.support.TestData;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The change feed returns only what was written or deleted since the token; offline log uploads are
+ * idempotent and refuse edits made against a stale version.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Import(TestData.class)
+class SyncTests {
+
+	private static final String NEW_LOG = "{\"logDate\":\"2024-03-05\",\"description\":\"Chain\",\"performedBy\":\"tech1\",\"machineId\":1}";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	@BeforeEach
+	void seed() {
+		testData.reset();
+		testData.machine(1, "Harvester", "HV-1").insert();
+		testData.machine(2, "Tractor", "TR-1").insert();
+		// Well above the ids the identity column hands out to logs created through the API.
+		testData.log(100, 1, LocalDate.of(2024, 3, 1)).with("version", 2).insert();
+		testData.schedule(1, 1, LocalDate.of(2024, 4, 1)).insert();
+	}
+
+	@Test
+	void deltaHoldsOnlyRowsWrittenSinceTheToken() throws Exception {
+		String token = fullSync();
+
+		mockMvc.perform(put("/api/machines/2").header(HttpHeaders.IF_MATCH, "\"0\"").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Tractor 2\",\"machineCode\":\"TR-1\",\"status\":\"OPERATIONAL\"}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/sync/changes").param("token", token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.reset").value(false))
+				.andExpect(jsonPath("$.machines", hasSize(1)))
+				.andExpect(jsonPath("$.machines[0].name").value("Tractor 2"))
+				.andExpect(jsonPath("$.logs", hasSize(0)))
+				.andExpect(jsonPath("$.schedules", hasSize(0)))
+				.andExpect(jsonPath("$.deletions", hasSize(0)));
+	}
+
+	@Test
+	void deletedLogIsReported() throws Exception {
+		String token = fullSync();
+
+		mockMvc.perform(delete("/api/maintenance-logs/100")).andExpect(status().isNoContent());
+
+		mockMvc.perform(get("/api/sync/changes").param("token", token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.logs", hasSize(0)))
+				.andExpect(jsonPath("$.deletions", hasSize(1)))
+				.andExpect(jsonPath("$.deletions[0].entityType").value("MAINTENANCE_LOG"))
+				.andExpect(jsonPath("$.deletions[0].id").value(100));
+	}
+
+	@Test
+	void resentCreateIsReportedAsDuplicate() throws Exception {
+		String batch = "{\"writes\":[{\"clientRef\":\"device-7:1\",\"log\":" + NEW_LOG + "}]}";
+
+		String created = mockMvc.perform(post("/api/sync/logs").contentType(MediaType.APPLICATION_JSON).content(batch))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.results[0].outcome").value("CREATED"))
+				.andReturn().getResponse().getContentAsString();
+		Integer id = JsonPath.read(created, "$.results[0].id");
+
+		mockMvc.perform(post("/api/sync/logs").contentType(MediaType.APPLICATION_JSON).content(batch))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.results[0].outcome").value("DUPLICATE"))
+				.andExpect(jsonPath("$.results[0].id").value(id));
+		assertThat(jdbcTemplate.queryForObject("select count(*) from maintenance_logs where client_ref = 'device-7:1'", Long.class))
+				.isEqualTo(1);
+	}
+
+	@Test
+	void staleEditIsConflictAndLaterWritesStillApply() throws Exception {
+		String batch = "{\"writes\":[" +
+				"{\"id\":100,\"baseVersion\":1,\"log\":" + NEW_LOG + "}," +
+				"{\"id\":100,\"baseVersion\":2,\"log\":" + NEW_LOG + "}," +
+				"{\"log\":" + NEW_LOG + "}]}";
+
+		mockMvc.perform(post("/api/sync/logs").contentType(MediaType.APPLICATION_JSON).content(batch))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.results[0].outcome").value("CONFLICT"))
+				.andExpect(jsonPath("$.results[0].log.version").value(2))
+				.andExpect(jsonPath("$.results[0].log.description").value("Oil"))
+				.andExpect(jsonPath("$.results[1].outcome").value("UPDATED"))
+				.andExpect(jsonPath("$.results[1].log.version").value(3))
+				.andExpect(jsonPath("$.results[2].outcome").value("REJECTED"));
+	}
+
+	@Test
+	void unknownTokenIsBadRequest() throws Exception {
+		mockMvc.perform(get("/api/sync/changes").param("token", "not-a-token"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private String fullSync() throws Exception {
+		String body = mockMvc.perform(get("/api/sync/changes"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.reset").value(true))
+				.andExpect(jsonPath("$.machines", hasSize(2)))
+				.andExpect(jsonPath("$.logs", hasSize(1)))
+				.andExpect(jsonPath("$.schedules", hasSize(1)))
+				.andReturn().getResponse().getContentAsString();
+		return JsonPath.read(body, "$.token");
+	}
+}
@@ -0,0 +1,127 @@
+package com.cropmaint.repository;
+
+import com.cropmaint.model.MaintenanceStatus;
+import com.cropmaint.sync.SyncSequence;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the date-range log queries are planned against the composite indexes
+ * declared on maintenance_logs rather than a table scan. The SQL explained is the statement
+ * Hibernate actually sent for the repository method, captured with its bound parameters.
+ */
+@DataJpaTest
+@Import({SyncSequence.class, MaintenanceLogIndexPlanTests.CaptureStatements.class})
+class MaintenanceLogIndexPlanTests {
+
+	private static final List<QueryInfo> EXECUTED = new CopyOnWriteArrayList<>();
+
+	private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+	private static final LocalDate TO = LocalDate.of(2024, 6, 30);
+
+	@TestConfiguration(proxyBeanMethods = false)
+	static class CaptureStatements {
+
+		@Bean
+		static BeanPostProcessor capturingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+						return bean;
+					}
+					return ProxyDataSourceBuilder.create(beanName, dataSource)
+							.afterQuery((execInfo, queries) -> EXECUTED.addAll(queries))
+							.build();
+				}
+			};
+		}
+	}
+
+	@Autowired
+	private MaintenanceLogRepository maintenanceLogRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void seed() {
+		jdbcTemplate.update("insert into users (id, username, password_hash, email, role) values (1, 'tech1', 'x', 'tech1@example.com', 'TECHNICIAN')");
+		jdbcTemplate.update("insert into machines (id, name, machine_code) values (1, 'Harvester', 'HV-1')");
+		for (int i = 1; i <= 200; i++) {
+			jdbcTemplate.update("insert into maintenance_logs (id, log_date, machine_id, technician_id, status) values (?, ?, 1, 1, ?)",
+					i, java.sql.Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(i)), i % 2 == 0 ? "COMPLETED" : "PENDING");
+		}
+	}
+
+	@Test
+	void machineDateRangeUsesMachineDateIndex() {
+		assertThat(planOf(() -> maintenanceLogRepository.findViewsByMachineIdAndLogDateBetween(1L, FROM, TO)))
+				.containsIgnoringCase("idx_maintenance_logs_machine_date");
+	}
+
+	@Test
+	void technicianStatusRangeUsesTechnicianStatusIndex() {
+		assertThat(planOf(() -> maintenanceLogRepository.findViewsByTechnicianIdAndStatusAndLogDateBetween(
+				1L, MaintenanceStatus.PENDING, FROM, TO)))
+				.containsIgnoringCase("idx_maintenance_logs_technician_status");
+	}
+
+	@Test
+	void statusDateRangeUsesStatusDateIndex() {
+		assertThat(planOf(() -> maintenanceLogRepository.findViewsByStatusAndLogDateBetween(MaintenanceStatus.COMPLETED, FROM, TO)))
+				.containsIgnoringCase("idx_maintenance_logs_status_date");
+	}
+
+	/**
+	 * Runs the repository call, then explains the one statement it executed with the same parameters.
+	 */
+	private String planOf(Runnable repositoryCall) {
+		EXECUTED.clear();
+		repositoryCall.run();
+		assertThat(EXECUTED).hasSize(1);
+		QueryInfo query = EXECUTED.get(0);
+		return jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement("explain " + query.getQuery());
+			for (ParameterSetOperation parameter : query.getParametersList().get(0)) {
+				replay(parameter, statement);
+			}
+			return statement;
+		}, resultSet -> resultSet.next() ? resultSet.getString(1) : null);
+	}
+
+	private static void replay(ParameterSetOperation parameter, PreparedStatement statement) throws SQLException {
+		try {
+			parameter.getMethod().invoke(statement, parameter.getArgs());
+		} catch (InvocationTargetException e) {
+			if (e.getCause() instanceof SQLException sql) {
+				throw sql;
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+package com.cropmaint.repository;
+
+import com.cropmaint.entity.Machine;
+import com.cropmaint.entity.User;
+import com.cropmaint.service.LastMaintenanceSnapshotService;
+import com.cropmaint.sync.SyncSequence;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that repeated Machine and User lookups, by id and by natural key, are answered from the
+ * second-level and query caches instead of the database. Runs without a test transaction so that
+ * every repository call is its own session, as it is for requests.
+ */
+@DataJpaTest
+@Import({SyncSequence.class, LastMaintenanceSnapshotService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTests {
+
+	@Autowired
+	private MachineRepository machineRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MaintenanceLogRepository maintenanceLogRepository;
+
+	@Autowired
+	private LastMaintenanceSnapshotService lastMaintenanceSnapshotService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void seed() {
+		entityManagerFactory.getCache().evictAll();
+		jdbcTemplate.update("insert into users (id, username, password_hash, email, role) values (1, 'tech1', 'x', 'tech1@example.com', 'TECHNICIAN')");
+		jdbcTemplate.update("insert into machines (id, name, machine_code) values (1, 'Harvester', 'HV-1')");
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	// Nothing here runs in a rolled-back transaction, and the embedded database is shared with other tests
+	@AfterEach
+	void clean() {
+		jdbcTemplate.update("delete from maintenance_logs");
+		jdbcTemplate.update("delete from machines");
+		jdbcTemplate.update("delete from users");
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	void machineByIdIsLoadedOnce() {
+		machineRepository.findById(1L).orElseThrow();
+		long statements = statistics.getPrepareStatementCount();
+
+		assertThat(machineRepository.findById(1L)).map(Machine::getName).hasValue("Harvester");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+		assertThat(statistics.getDomainDataRegionStatistics(Machine.CACHE_REGION).getHitCount()).isPositive();
+	}
+
+	@Test
+	void machineByCodeIsAnsweredFromQueryCache() {
+		machineRepository.findByMachineCode("HV-1").orElseThrow();
+		long statements = statistics.getPrepareStatementCount();
+
+		assertThat(machineRepository.findByMachineCode("HV-1")).map(Machine::getId).hasValue(1L);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void userByUsernameIsAnsweredFromQueryCache() {
+		userRepository.findByUsername("tech1").orElseThrow();
+		long statements = statistics.getPrepareStatementCount();
+
+		assertThat(userRepository.findByUsername("tech1")).map(User::getId).hasValue(1L);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+	}
+
+	@Test
+	void updatedMachineIsNotServedStale() {
+		Machine machine = machineRepository.findById(1L).orElseThrow();
+		machine.setName("Combine");
+		machineRepository.save(machine);
+
+		assertThat(machineRepository.findById(1L)).map(Machine::getName).hasValue("Combine");
+	}
+
+	@Test
+	void snapshotUpdateReplacesOnlyItsMachine() {
+		jdbcTemplate.update("insert into machines (id, name, machine_code) values (2, 'Tractor', 'TR-1')");
+		jdbcTemplate.update("insert into maintenance_logs (id, log_date, description, machine_id, status) values (1, ?, 'Oil', 1, 'COMPLETED')",
+				Date.valueOf(LocalDate.of(2024, 3, 1)));
+		machineRepository.findById(1L).orElseThrow();
+		machineRepository.findById(2L).orElseThrow();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				lastMaintenanceSnapshotService.onLogCompleted(maintenanceLogRepository.findById(1L).orElseThrow()));
+		long statements = statistics.getPrepareStatementCount();
+
+		assertThat(machineRepository.findById(2L)).map(Machine::getName).hasValue("Tractor");
+		assertThat(machineRepository.findById(1L)).map(machine -> machine.getLastMaintenance().getLogId()).hasValue(1L);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+	}
+}
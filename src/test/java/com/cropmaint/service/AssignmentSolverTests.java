@@ -0,0 +1,104 @@
+package com.cropmaint.service;
+
+import com.cropmaint.enums.CriticalityLevel;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssignmentSolverTests {
+
+	private static final LocalDate DUE = LocalDate.of(2024, 3, 1);
+
+	private final AssignmentSolver solver = new AssignmentSolver(3, ForkJoinPool.commonPool());
+
+	@Test
+	void jobsEvenOutUnequalLoads() {
+		List<AssignmentSolver.Technician> technicians = List.of(
+				technician(1, Map.of("North", 1)),
+				technician(2, Map.of("North", 3)),
+				technician(3, Map.of("North", 5)),
+				technician(4, Map.of("North", 7)));
+
+		AssignmentSolver.Plan plan = solver.solve(jobs("North", 1, 20), technicians);
+
+		assertThat(plan.assignments()).hasSize(20);
+		assertThat(plan.loadByTechnician()).containsOnly(
+				Map.entry(1L, 9), Map.entry(2L, 9), Map.entry(3L, 9), Map.entry(4L, 9));
+	}
+
+	@Test
+	void jobsStayWithTechniciansHomedAtTheirLocation() {
+		List<AssignmentSolver.Job> jobs = new ArrayList<>(jobs("North", 1, 4));
+		jobs.addAll(jobs("South", 101, 4));
+
+		AssignmentSolver.Plan plan = solver.solve(jobs, List.of(
+				technician(1, Map.of("North", 1)),
+				technician(2, Map.of("South", 1))));
+
+		assertThat(plan.assignments()).hasSize(8).allSatisfy(assignment ->
+				assertThat(assignment.technicianId()).isEqualTo("North".equals(assignment.job().location()) ? 1L : 2L));
+	}
+
+	@Test
+	void overflowPrefersTechniciansAlreadyWorkingAtTheLocation() {
+		// Nobody is homed at East, so its job is placed by load plus travel: 6 + 0 beats 1 + 10.
+		AssignmentSolver travelAverse = new AssignmentSolver(10, ForkJoinPool.commonPool());
+
+		AssignmentSolver.Plan plan = travelAverse.solve(jobs("East", 1, 1), List.of(
+				technician(1, Map.of("North", 5, "East", 1)),
+				technician(2, Map.of("South", 1))));
+
+		assertThat(plan.assignments()).singleElement()
+				.extracting(AssignmentSolver.Assignment::technicianId).isEqualTo(1L);
+	}
+
+	@Test
+	void overflowGoesToTheLeastLoadedWhenNobodyWorksThere() {
+		AssignmentSolver.Plan plan = solver.solve(jobs("East", 1, 1), List.of(
+				technician(1, Map.of("North", 5)),
+				technician(2, Map.of("South", 1))));
+
+		assertThat(plan.assignments()).singleElement()
+				.extracting(AssignmentSolver.Assignment::technicianId).isEqualTo(2L);
+	}
+
+	@Test
+	void mostCriticalAndEarliestDueJobsArePlacedFirst() {
+		List<AssignmentSolver.Job> jobs = List.of(
+				new AssignmentSolver.Job(AssignmentSolver.JobKind.LOG, 1L, "North", CriticalityLevel.LOW, DUE),
+				new AssignmentSolver.Job(AssignmentSolver.JobKind.LOG, 2L, "North", CriticalityLevel.HIGH, DUE),
+				new AssignmentSolver.Job(AssignmentSolver.JobKind.LOG, 3L, "North", CriticalityLevel.HIGH, DUE.minusDays(1)));
+
+		AssignmentSolver.Plan plan = solver.solve(jobs, List.of(
+				technician(1, Map.of("North", 1)),
+				technician(2, Map.of("South", 4))));
+
+		assertThat(plan.assignments()).extracting(assignment -> assignment.job().id()).containsExactly(3L, 2L, 1L);
+	}
+
+	@Test
+	void nothingToAssignKeepsLoads() {
+		AssignmentSolver.Plan plan = solver.solve(List.of(), List.of(technician(1, Map.of("North", 2))));
+
+		assertThat(plan.assignments()).isEmpty();
+		assertThat(plan.loadByTechnician()).containsExactly(Map.entry(1L, 2));
+	}
+
+	private static AssignmentSolver.Technician technician(long id, Map<String, Integer> openJobsByLocation) {
+		return new AssignmentSolver.Technician(id, openJobsByLocation);
+	}
+
+	private static List<AssignmentSolver.Job> jobs(String location, long firstId, int count) {
+		List<AssignmentSolver.Job> jobs = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			jobs.add(new AssignmentSolver.Job(AssignmentSolver.JobKind.LOG, firstId + i, location, CriticalityLevel.MEDIUM, DUE));
+		}
+		return jobs;
+	}
+}
@@ -0,0 +1,83 @@
+package com.cropmaint.service;
+
+import com.cropmaint.cache.FleetStatusCounters;
+import com.cropmaint.enums.CriticalityLevel;
+import com.cropmaint.enums.MachineStatus;
+import com.cropmaint.repository.MachineRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FleetSummaryServiceTests {
+
+	private static final FleetStatusCounters.Cell NORTH = new FleetStatusCounters.Cell(MachineStatus.OPERATIONAL, CriticalityLevel.HIGH, "North");
+	private static final FleetStatusCounters.Cell SOUTH = new FleetStatusCounters.Cell(MachineStatus.OPERATIONAL, CriticalityLevel.HIGH, "South");
+
+	private final MachineRepository machineRepository = mock(MachineRepository.class);
+	private final FleetStatusCounters counters = new FleetStatusCounters();
+	private final FleetSummaryService service = new FleetSummaryService(machineRepository, counters);
+
+	@Test
+	void reconcileCorrectsOnlyTheCellsThatDrifted() {
+		counters.add(NORTH, 3);
+		counters.add(SOUTH, 5);
+		when(machineRepository.countByStatusCriticalityAndLocation()).thenReturn(List.of(row(NORTH, 3), row(SOUTH, 4)));
+
+		service.reconcile();
+
+		assertThat(counters.snapshot()).containsEntry(NORTH, 3L).containsEntry(SOUTH, 4L);
+	}
+
+	@Test
+	void reconcileKeepsWritesMadeWhileItReads() {
+		counters.add(NORTH, 3);
+		counters.add(SOUTH, 5);
+		// A machine is created in North after the counts were read: the database still says 3.
+		when(machineRepository.countByStatusCriticalityAndLocation()).thenAnswer(invocation -> {
+			counters.increment(NORTH);
+			return List.of(row(NORTH, 3), row(SOUTH, 4));
+		});
+
+		service.reconcile();
+
+		assertThat(counters.snapshot()).containsEntry(NORTH, 4L).containsEntry(SOUTH, 4L);
+	}
+
+	@Test
+	void reconcileDropsCellsMissingFromTheDatabase() {
+		counters.add(NORTH, 2);
+		when(machineRepository.countByStatusCriticalityAndLocation()).thenReturn(List.of());
+
+		service.reconcile();
+
+		assertThat(counters.snapshot()).isEmpty();
+	}
+
+	private static MachineRepository.FleetCellCount row(FleetStatusCounters.Cell cell, long total) {
+		return new MachineRepository.FleetCellCount() {
+			@Override
+			public MachineStatus getStatus() {
+				return cell.status();
+			}
+
+			@Override
+			public CriticalityLevel getCriticalityLevel() {
+				return cell.criticalityLevel();
+			}
+
+			@Override
+			public String getLocation() {
+				return cell.location();
+			}
+
+			@Override
+			public Long getTotal() {
+				return total;
+			}
+		};
+	}
+}
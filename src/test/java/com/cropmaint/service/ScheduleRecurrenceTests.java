@@ -0,0 +1,70 @@
+package com.cropmaint.service;
+
+import com.cropmaint.enums.FrequencyType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScheduleRecurrenceTests {
+
+	private static final LocalDate JAN_31 = LocalDate.of(2024, 1, 31);
+
+	@Test
+	void monthEndSeriesReturnsToTheThirtyFirst() {
+		assertThat(ScheduleRecurrence.nextAfter(JAN_31, 1, FrequencyType.MONTHS, JAN_31)).isEqualTo(LocalDate.of(2024, 2, 29));
+		assertThat(ScheduleRecurrence.nextAfter(JAN_31, 1, FrequencyType.MONTHS, LocalDate.of(2024, 2, 29))).isEqualTo(LocalDate.of(2024, 3, 31));
+		assertThat(ScheduleRecurrence.nextAfter(JAN_31, 1, FrequencyType.MONTHS, LocalDate.of(2024, 3, 31))).isEqualTo(LocalDate.of(2024, 4, 30));
+		assertThat(ScheduleRecurrence.nextAfter(JAN_31, 1, FrequencyType.MONTHS, LocalDate.of(2024, 4, 30))).isEqualTo(LocalDate.of(2024, 5, 31));
+	}
+
+	@Test
+	void leapDaySeriesFallsOnLeapDaysAgain() {
+		LocalDate leapDay = LocalDate.of(2024, 2, 29);
+		assertThat(ScheduleRecurrence.nextAfter(leapDay, 1, FrequencyType.YEARS, leapDay)).isEqualTo(LocalDate.of(2025, 2, 28));
+		assertThat(ScheduleRecurrence.nextAfter(leapDay, 1, FrequencyType.YEARS, LocalDate.of(2027, 3, 1))).isEqualTo(LocalDate.of(2028, 2, 29));
+	}
+
+	@Test
+	void farOverdueSeriesSkipsToTheNextOccurrence() {
+		// 2000-01-01 and 2024-06-15 are both Saturdays.
+		LocalDate start = LocalDate.of(2000, 1, 1);
+		assertThat(ScheduleRecurrence.nextAfter(start, 1, FrequencyType.WEEKS, LocalDate.of(2024, 6, 15))).isEqualTo(LocalDate.of(2024, 6, 22));
+		assertThat(ScheduleRecurrence.nextAfter(start, 3, FrequencyType.MONTHS, LocalDate.of(2024, 6, 15))).isEqualTo(LocalDate.of(2024, 7, 1));
+		assertThat(ScheduleRecurrence.nextAfter(start, 10, null, LocalDate.of(2024, 6, 15))).isEqualTo(start.plusDays(8940));
+	}
+
+	@Test
+	void nextAfterDateBeforeTheStartIsTheStart() {
+		assertThat(ScheduleRecurrence.nextAfter(JAN_31, 1, FrequencyType.MONTHS, LocalDate.of(2023, 12, 1))).isEqualTo(JAN_31);
+	}
+
+	@Test
+	void firstOnOrAfterKeepsAnOccurrenceOnTheDate() {
+		assertThat(ScheduleRecurrence.firstOnOrAfter(JAN_31, 1, FrequencyType.MONTHS, LocalDate.of(2024, 2, 29))).isEqualTo(LocalDate.of(2024, 2, 29));
+		assertThat(ScheduleRecurrence.firstOnOrAfter(JAN_31, 1, FrequencyType.MONTHS, LocalDate.of(2024, 3, 1))).isEqualTo(LocalDate.of(2024, 3, 31));
+		assertThat(ScheduleRecurrence.firstOnOrAfter(JAN_31, 1, FrequencyType.MONTHS, LocalDate.of(2024, 1, 1))).isEqualTo(JAN_31);
+	}
+
+	@Test
+	void firstOnOrAfterLeapDayInCommonYear() {
+		LocalDate leapDay = LocalDate.of(2024, 2, 29);
+		assertThat(ScheduleRecurrence.firstOnOrAfter(leapDay, 1, FrequencyType.YEARS, LocalDate.of(2025, 2, 28))).isEqualTo(LocalDate.of(2025, 2, 28));
+		assertThat(ScheduleRecurrence.firstOnOrAfter(leapDay, 1, FrequencyType.YEARS, LocalDate.of(2025, 3, 1))).isEqualTo(LocalDate.of(2026, 2, 28));
+	}
+
+	@Test
+	void firstOnOrAfterFarOverdue() {
+		LocalDate start = LocalDate.of(2000, 1, 1);
+		assertThat(ScheduleRecurrence.firstOnOrAfter(start, 1, FrequencyType.WEEKS, LocalDate.of(2024, 6, 15))).isEqualTo(LocalDate.of(2024, 6, 15));
+		assertThat(ScheduleRecurrence.firstOnOrAfter(start, 1, FrequencyType.YEARS, LocalDate.of(2024, 6, 15))).isEqualTo(LocalDate.of(2025, 1, 1));
+	}
+
+	@Test
+	void missingFrequencyIsRejected() {
+		assertThatThrownBy(() -> ScheduleRecurrence.nextAfter(JAN_31, 0, FrequencyType.DAYS, JAN_31))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
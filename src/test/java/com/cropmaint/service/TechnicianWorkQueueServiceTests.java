@@ -0,0 +1,97 @@
+package com.cropmaint.service;
+
+import com.cropmaint.cache.TechnicianWorkQueue;
+import com.cropmaint.enums.CriticalityLevel;
+import com.cropmaint.model.MaintenanceStatus;
+import com.cropmaint.repository.MaintenanceLogRepository;
+import com.cropmaint.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TechnicianWorkQueueServiceTests {
+
+	private static final LocalDate DUE = LocalDate.of(2024, 3, 1);
+
+	private final MaintenanceLogRepository maintenanceLogRepository = mock(MaintenanceLogRepository.class);
+	private final TechnicianWorkQueue workQueue = new TechnicianWorkQueue();
+	private final TechnicianWorkQueueService service = new TechnicianWorkQueueService(workQueue, maintenanceLogRepository,
+			mock(MaintenanceLogService.class), mock(UserRepository.class));
+
+	@Test
+	void reconcileCorrectsOnlyTheJobsThatDrifted() {
+		workQueue.put(job(1, null));
+		workQueue.put(job(2, 7L));
+		workQueue.put(job(3, null));
+		// Log 2 was reassigned and log 3 completed outside the service; log 4 was created there.
+		when(maintenanceLogRepository.findWorkQueueJobsByStatus(MaintenanceStatus.PENDING))
+				.thenReturn(List.of(row(job(1, null)), row(job(2, 8L)), row(job(4, null))));
+
+		service.reconcile();
+
+		assertThat(workQueue.snapshot()).containsOnlyKeys(1L, 2L, 4L).containsEntry(2L, job(2, 8L));
+	}
+
+	@Test
+	void reconcileKeepsWritesMadeWhileItReads() {
+		workQueue.put(job(1, null));
+		workQueue.put(job(2, null));
+		// Log 1 is claimed and log 3 created after the jobs were read: the database still has the old state.
+		when(maintenanceLogRepository.findWorkQueueJobsByStatus(MaintenanceStatus.PENDING)).thenAnswer(invocation -> {
+			workQueue.remove(1L);
+			workQueue.put(job(3, 7L));
+			return List.of(row(job(1, null)), row(job(2, null)));
+		});
+
+		service.reconcile();
+
+		assertThat(workQueue.snapshot()).containsOnlyKeys(2L, 3L);
+	}
+
+	@Test
+	void replaceIfLeavesAJobThatChanged() {
+		workQueue.put(job(1, 7L));
+
+		assertThat(workQueue.replaceIf(1L, job(1, null), null)).isFalse();
+		assertThat(workQueue.replaceIf(1L, job(1, 7L), null)).isTrue();
+		assertThat(workQueue.snapshot()).isEmpty();
+	}
+
+	private static TechnicianWorkQueue.Job job(long logId, Long technicianId) {
+		return new TechnicianWorkQueue.Job(logId, 1L, technicianId, CriticalityLevel.HIGH, DUE);
+	}
+
+	private static MaintenanceLogRepository.WorkQueueJobView row(TechnicianWorkQueue.Job job) {
+		return new MaintenanceLogRepository.WorkQueueJobView() {
+			@Override
+			public Long getId() {
+				return job.logId();
+			}
+
+			@Override
+			public LocalDate getLogDate() {
+				return job.dueDate();
+			}
+
+			@Override
+			public Long getMachineId() {
+				return job.machineId();
+			}
+
+			@Override
+			public CriticalityLevel getCriticalityLevel() {
+				return job.criticalityLevel();
+			}
+
+			@Override
+			public Long getTechnicianId() {
+				return job.technicianId();
+			}
+		};
+	}
+}
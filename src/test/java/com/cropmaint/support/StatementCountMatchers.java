@@ -0,0 +1,52 @@
+package com.cropmaint.support;
+
+import com.cropmaint.metrics.RequestActivity;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc matchers on the number of JDBC statements a request executed, as counted by
+ * {@link RequestActivity}. A failure lists the statements grouped by SQL, so an N+1 shows up as
+ * one query repeated once per row.
+ */
+public final class StatementCountMatchers {
+
+	private StatementCountMatchers() {
+	}
+
+	public static ResultMatcher statementsAtMost(int max) {
+		return result -> {
+			RequestActivity activity = activityOf(result);
+			assertThat(activity.getStatements())
+					.as("statements executed by %s", describe(result, activity))
+					.isLessThanOrEqualTo(max);
+		};
+	}
+
+	public static ResultMatcher statements(int expected) {
+		return result -> {
+			RequestActivity activity = activityOf(result);
+			assertThat(activity.getStatements())
+					.as("statements executed by %s", describe(result, activity))
+					.isEqualTo(expected);
+		};
+	}
+
+	private static RequestActivity activityOf(MvcResult result) {
+		Object activity = result.getRequest().getAttribute(RequestActivity.ATTRIBUTE);
+		assertThat(activity).as("request activity (is the metrics filter registered?)").isInstanceOf(RequestActivity.class);
+		return (RequestActivity) activity;
+	}
+
+	private static String describe(MvcResult result, RequestActivity activity) {
+		return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI() + "\n"
+				+ activity.getStatementCountsBySql().entrySet().stream()
+						.map(entry -> "\t" + entry.getValue() + " x " + entry.getKey())
+						.collect(Collectors.joining("\n"));
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.cropmaint.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds the tables with plain JDBC inserts, so the requests under test start from a known state
+ * without going through the services they exercise. Import it with {@code @Import(TestData.class)}.
+ */
+@TestComponent
+public class TestData {
+
+	// Children before parents, for the foreign keys.
+	private static final String[] TABLES = {"tombstones", "schedule", "maintenance_logs", "machines", "users"};
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManagerFactory entityManagerFactory;
+
+	public TestData(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	/**
+	 * Empties every table and the second-level cache, which would otherwise serve rows deleted here.
+	 */
+	public void reset() {
+		entityManagerFactory.getCache().evictAll();
+		for (String table : TABLES) {
+			jdbcTemplate.update("delete from " + table);
+		}
+	}
+
+	/**
+	 * Inserts technician {@code tech<id>}.
+	 */
+	public void user(long id) {
+		new Row("users")
+				.with("id", id)
+				.with("username", "tech" + id)
+				.with("password_hash", "x")
+				.with("email", "tech" + id + "@example.com")
+				.with("role", "TECHNICIAN")
+				.insert();
+	}
+
+	/**
+	 * An operational machine; add other columns with {@link Row#with} before inserting.
+	 */
+	public Row machine(long id, String name, String machineCode) {
+		return new Row("machines")
+				.with("id", id)
+				.with("name", name)
+				.with("machine_code", machineCode)
+				.with("status", "OPERATIONAL");
+	}
+
+	/**
+	 * A pending "Oil" log on the machine.
+	 */
+	public Row log(long id, long machineId, LocalDate logDate) {
+		return new Row("maintenance_logs")
+				.with("id", id)
+				.with("log_date", Date.valueOf(logDate))
+				.with("description", "Oil")
+				.with("machine_id", machineId)
+				.with("status", "PENDING");
+	}
+
+	/**
+	 * An active 30-day "Grease" schedule on the machine.
+	 */
+	public Row schedule(long id, long machineId, LocalDate dueDate) {
+		return new Row("schedule")
+				.with("id", id)
+				.with("maintenance_task_description", "Grease")
+				.with("maintenance_due_date", Date.valueOf(dueDate))
+				.with("created_on", Timestamp.valueOf(LocalDateTime.now()))
+				.with("frequency_days", 30)
+				.with("active", true)
+				.with("machine_id", machineId);
+	}
+
+	public final class Row {
+
+		private final String table;
+		private final Map<String, Object> columns = new LinkedHashMap<>();
+
+		private Row(String table) {
+			this.table = table;
+		}
+
+		public Row with(String column, Object value) {
+			columns.put(column, value);
+			return this;
+		}
+
+		public void insert() {
+			String names = String.join(", ", columns.keySet());
+			String placeholders = columns.keySet().stream().map(column -> "?").collect(Collectors.joining(", "));
+			jdbcTemplate.update("insert into " + table + " (" + names + ") values (" + placeholders + ")", columns.values().toArray());
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.cropmaint.sync;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A change number that was handed out and rolled back can sit under an issued watermark without being
+ * stamped on any row; a restarted counter must still never hand it out again. Runs without a test
+ * transaction so the allocations commit or roll back as they would in a request.
+ */
+@DataJpaTest
+@Import(SyncSequence.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SyncSequenceTests {
+
+	@Autowired
+	private SyncSequence syncSequence;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ObjectProvider<PlatformTransactionManager> transactionManagerProvider;
+
+	@Test
+	void restartDoesNotReuseRolledBackNumbersBelowAnIssuedWatermark() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		long rolledBack = transaction.execute(status -> {
+			status.setRollbackOnly();
+			return syncSequence.current();
+		});
+		long issued = syncSequence.issueWatermark();
+		assertThat(issued).isGreaterThanOrEqualTo(rolledBack);
+
+		SyncSequence restarted = new SyncSequence(jdbcTemplate, transactionManagerProvider);
+
+		long next = transaction.execute(status -> restarted.current());
+		assertThat(next).isGreaterThan(issued);
+		assertThat(restarted.watermark()).isGreaterThanOrEqualTo(issued);
+	}
+}